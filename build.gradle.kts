@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
@@ -18,4 +19,17 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Benchmarks live in src/jmh/java; run with ./gradlew jmh (results in build/results/jmh)
+jmh {
+    jmhVersion.set("1.37")
+    // Allocation rate per operation next to throughput, so garbage regressions show up too
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    // e.g. ./gradlew jmh -Pjmh.includes=LoggerBenchmark.info
+    findProperty("jmh.includes")?.let { includes.add(it.toString()) }
+}
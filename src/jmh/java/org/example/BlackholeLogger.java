@@ -0,0 +1,24 @@
+package org.example;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+// Logger for benchmarks: both the plain and the colored path end in the Blackhole instead of stdout
+public class BlackholeLogger extends LevelBasedLogger {
+
+    private final Blackhole blackhole;
+
+    public BlackholeLogger(Blackhole blackhole, int level) {
+        super(level);
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void log(String message) {
+        blackhole.consume(message);
+    }
+
+    @Override
+    public void log(String message, String color) {
+        blackhole.consume(message);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Per-line routing cost of LogRouter with 20 literal and 4 regex routes, against checking the
+// same patterns one by one the way chained logIfMatchesPattern calls would. Thread-scoped, so
+// each thread's sinks consume into that thread's own Blackhole if the suite is run with -t.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogRouterBenchmark {
+
+    private static final String[] LITERALS = {
+            "ERROR", "FATAL", "OutOfMemoryError", "StackOverflowError", "Connection refused",
+            "Connection reset", "deadlock", "SECURITY", "Unauthorized", "Forbidden",
+            "disk full", "read-only file system", "too many open files", "GC overhead", "rollback",
+            "payment", "checkout", "login failed", "password", "token expired"
+    };
+    private static final String[] REGEXES = {
+            "timeout after \\d+ms", "HTTP/1\\.[01]\" 5\\d\\d", "user=\\w+ id=\\d{5,}", "latency=\\d{4,}ms"
+    };
+
+    @Param({
+            "INFO: User 12345 logged in from 10.0.0.1 in 35ms",
+            "ERROR: checkout failed: timeout after 3000ms talking to payment-service",
+            "GET /api/orders HTTP/1.1\" 503 user=alice id=1234567 latency=2048ms"
+    })
+    public String line;
+
+    private LogRouter router;
+    private Pattern[] separate;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        Logger errors = new BlackholeLogger(blackhole, Logger.INFO);
+        Logger slow = new BlackholeLogger(blackhole, Logger.INFO);
+        Logger everythingElse = new BlackholeLogger(blackhole, Logger.INFO);
+        LogRouter.Builder builder = LogRouter.builder();
+        for (String literal : LITERALS) {
+            builder.literal(literal, errors);
+        }
+        for (String regex : REGEXES) {
+            builder.regex(regex, slow);
+        }
+        router = builder.otherwise(everythingElse).build();
+
+        separate = new Pattern[LITERALS.length + REGEXES.length];
+        for (int i = 0; i < LITERALS.length; i++) {
+            separate[i] = Pattern.compile(Pattern.quote(LITERALS[i]));
+        }
+        for (int i = 0; i < REGEXES.length; i++) {
+            separate[LITERALS.length + i] = Pattern.compile(REGEXES[i]);
+        }
+    }
+
+    @Benchmark
+    public long route() {
+        return router.route(line);
+    }
+
+    @Benchmark
+    public void routeAndLog() {
+        router.log(line);
+    }
+
+    @Benchmark
+    public long separatePatterns() {
+        long matched = 0;
+        for (int i = 0; i < separate.length; i++) {
+            if (separate[i].matcher(line).find()) {
+                matched |= 1L << i;
+            }
+        }
+        return matched;
+    }
+}
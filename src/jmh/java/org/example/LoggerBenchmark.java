@@ -0,0 +1,312 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Hot paths of the Logger interface. Console output is replaced by a Blackhole so the numbers
+// show the cost of building each line; the file benchmarks write to temp files.
+// The *Contended variants run the same call from 4 threads against one shared logger. A Blackhole
+// is not thread-safe, so there each thread logs into its own (ThreadSinks) and only the state
+// under test, such as the metrics counters, is shared.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerBenchmark {
+
+    private static final String MESSAGE = "User 12345 logged in from 10.0.0.1";
+    private static final String SENTENCE = "the quick brown fox jumps over the lazy dog the fox";
+    private static final Map<String, Object> JSON_DATA = Map.of("message", "Hello world!", "level", "INFO");
+    private static final Map<String, String> CONTEXT = Map.of("userId", "12345", "sessionId", "abc123");
+    private static final LogContext.Snapshot CONTEXT_SNAPSHOT = LogContext.Snapshot.of(CONTEXT);
+    private static final TransformerPipeline PIPELINE =
+            TransformerPipeline.builder().leet().removeVowels().rot13().reverse().build();
+
+    private Logger logger;
+    private Logger fileLogger;
+    private AsyncFileLogger asyncFileLogger;
+    private WordFrequencyAggregator aggregator;
+    private FilteringLogger filteringLogger;
+    private SentimentLexicon largeLexicon;
+    private Logger instrumentedLogger;
+    private LatencyHistogram histogram;
+    private Timings timings;
+    private final StringBuilder highlighted = new StringBuilder();
+    private LoggerMetrics metrics;
+    private Path fileLog;
+    private Path asyncFileLog;
+
+    @State(Scope.Thread)
+    public static class ThreadSinks {
+        Logger logger;
+        Logger instrumentedLogger;
+
+        @Setup(Level.Trial)
+        public void setUp(Blackhole blackhole, LoggerBenchmark benchmark) {
+            logger = new BlackholeLogger(blackhole, Logger.INFO);
+            // Same name and LoggerMetrics as the shared one, so all threads record into one sink's counters
+            instrumentedLogger = new InstrumentedLogger("benchmark", logger, benchmark.metrics);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) throws IOException {
+        logger = new BlackholeLogger(blackhole, Logger.INFO);
+        fileLog = Files.createTempFile("logger-bench", ".txt");
+        asyncFileLog = Files.createTempFile("logger-bench-async", ".txt");
+        fileLogger = Logger.getFileLogger(fileLog.toString());
+        asyncFileLogger = Logger.getAsyncFileLogger(asyncFileLog.toString());
+        aggregator = new WordFrequencyAggregator();
+        // The filter's summaries come from its sweeper thread, which must not touch the benchmark's Blackhole
+        filteringLogger = new FilteringLogger(new LevelBasedLogger(Logger.INFO) {
+            @Override
+            public void log(String message) {
+            }
+
+            @Override
+            public void log(String message, String color) {
+            }
+        });
+        Map<String, Double> terms = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            terms.put("term" + i, i % 2 == 0 ? 1.0 : -1.0);
+        }
+        terms.put("quick brown fox", 1.0);
+        terms.put("lazy", -0.5);
+        largeLexicon = SentimentLexicon.of(terms);
+        metrics = new LoggerMetrics();
+        instrumentedLogger = new InstrumentedLogger("benchmark", logger, metrics);
+        histogram = new LatencyHistogram();
+        timings = new Timings();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        filteringLogger.close();
+        asyncFileLogger.close();
+        Files.deleteIfExists(fileLog);
+        Files.deleteIfExists(asyncFileLog);
+    }
+
+    @Benchmark
+    public void log() {
+        logger.log(MESSAGE);
+    }
+
+    @Benchmark
+    public void info() {
+        logger.info(MESSAGE);
+    }
+
+    @Benchmark
+    public void infoTemplate() {
+        logger.info("Processed {} records", 42);
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        logger.debug(MESSAGE);
+    }
+
+    @Benchmark
+    public void debugDisabledTemplate() {
+        logger.debug("Processed {} records", 42);
+    }
+
+    @Benchmark
+    public void logAsJson() {
+        logger.logAsJson(JSON_DATA);
+    }
+
+    @Benchmark
+    public void logWithTimestamp() {
+        logger.logWithTimestamp(MESSAGE);
+    }
+
+    @Benchmark
+    public void logWithContext() {
+        logger.logWithContext(MESSAGE, CONTEXT);
+    }
+
+    @Benchmark
+    public void logWithContextSnapshot() {
+        logger.logWithContext(MESSAGE, CONTEXT_SNAPSHOT);
+    }
+
+    @Benchmark
+    public void transformerPipeline() {
+        logger.logWithTransformation(PIPELINE, SENTENCE);
+    }
+
+    // After the first call every message is a suppressed duplicate
+    @Benchmark
+    public void filteredDuplicate() {
+        filteringLogger.error("Connection refused by {}", 5432L);
+    }
+
+    // A repeated template: after the first call every message is a cache hit
+    @Benchmark
+    public void logInLanguage() {
+        logger.logInLanguage("Thank you for waiting. Goodbye!", "es");
+    }
+
+    @Benchmark
+    public void logWithSentimentHighlight() {
+        logger.logWithSentimentHighlight(SENTENCE);
+    }
+
+    // 5000 terms, one scan of the message
+    @Benchmark
+    public double sentimentLargeLexicon() {
+        highlighted.setLength(0);
+        return largeLexicon.highlight(SENTENCE, ColorCodes.GREEN, ColorCodes.RED, highlighted);
+    }
+
+    @Benchmark
+    public void logInMorseCode() {
+        logger.logInMorseCode(SENTENCE);
+    }
+
+    @Benchmark
+    public void logInPigLatin() {
+        logger.logInPigLatin(SENTENCE);
+    }
+
+    @Benchmark
+    public void logAndHighlightPalindromes() {
+        logger.logAndHighlightPalindromes(SENTENCE, ColorCodes.RED);
+    }
+
+    @Benchmark
+    public void logLongestPalindromes() {
+        logger.logLongestPalindromes(SENTENCE, ColorCodes.RED);
+    }
+
+    @Benchmark
+    public void logWithLengthScrambledWords() {
+        logger.logWithLengthScrambledWords(SENTENCE);
+    }
+
+    @Benchmark
+    public void wordFrequencyAggregator() {
+        aggregator.record(SENTENCE);
+    }
+
+    @Benchmark
+    public void logWordFrequency() {
+        logger.logWordFrequency(SENTENCE);
+    }
+
+    // The metrics overhead is the difference to log() and info()
+    @Benchmark
+    public void instrumentedLog() {
+        instrumentedLogger.log(MESSAGE);
+    }
+
+    @Benchmark
+    public void instrumentedInfo() {
+        instrumentedLogger.info(MESSAGE);
+    }
+
+    @Benchmark
+    public void latencyHistogramRecord() {
+        histogram.record(1234);
+    }
+
+    @Benchmark
+    public void timingSpan() {
+        try (Timings.Span span = timings.start("request")) {
+            span.getPath();
+        }
+    }
+
+    @Benchmark
+    public void nestedTimingSpans() {
+        try (Timings.Span request = timings.start("request")) {
+            try (Timings.Span query = timings.start("db")) {
+                query.getPath();
+            }
+        }
+    }
+
+    @Benchmark
+    public void fileLogger() {
+        fileLogger.log(MESSAGE);
+    }
+
+    @Benchmark
+    public void asyncFileLogger() {
+        asyncFileLogger.log(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logContended(ThreadSinks sinks) {
+        sinks.logger.log(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoContended(ThreadSinks sinks) {
+        sinks.logger.info(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void instrumentedLogContended(ThreadSinks sinks) {
+        sinks.instrumentedLogger.log(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timingSpanContended() {
+        try (Timings.Span span = timings.start("request")) {
+            span.getPath();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logWithTimestampContended(ThreadSinks sinks) {
+        sinks.logger.logWithTimestamp(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fileLoggerContended() {
+        fileLogger.log(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void asyncFileLoggerContended() {
+        asyncFileLogger.log(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void wordFrequencyAggregatorContended() {
+        aggregator.record(SENTENCE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void filteredDuplicateContended() {
+        filteringLogger.error("Connection refused by {}", 5432L);
+    }
+}
@@ -0,0 +1,137 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The cached paths against the code they replaced, which built its mapper, formatter, pattern or
+// map on every call. Each *Rebuilt benchmark is that old code; compare the gc.alloc.rate.norm
+// (bytes per call) of the pairs as much as their throughput.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerCachesBenchmark {
+
+    private static final Map<String, Object> DATA = Map.of("message", "Hello world!", "level", "INFO");
+    private static final String SENTENCE = "Radar detected a level of civic level responsibility";
+
+    private static final String MORSE_LETTERS = "abcdefghijklmnopqrstuvwxyz0123456789.,?!";
+    private static final String[] MORSE_CODES = {
+            ".-", "-...", "-.-.", "-..", ".", "..-.", "--.", "....", "..", ".---", "-.-", ".-..", "--",
+            "-.", "---", ".--.", "--.-", ".-.", "...", "-", "..-", "...-", ".--", "-..-", "-.--", "--..",
+            "-----", ".----", "..---", "...--", "....-", ".....", "-....", "--...", "---..", "----.",
+            ".-.-.-", "--..--", "..--..", "-.-.--"
+    };
+
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        logger = new BlackholeLogger(blackhole, Logger.INFO);
+    }
+
+    @Benchmark
+    public void logAsJson() {
+        logger.logAsJson(DATA);
+    }
+
+    @Benchmark
+    public void logAsJsonRebuilt() throws Exception {
+        logger.log(new ObjectMapper().writeValueAsString(DATA));
+    }
+
+    @Benchmark
+    public void logWithTimestamp() {
+        logger.logWithTimestamp("Service started");
+    }
+
+    @Benchmark
+    public void logWithTimestampRebuilt() {
+        logger.log("[" + ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
+                + "] Service started");
+    }
+
+    @Benchmark
+    public void logWithoutVowels() {
+        logger.logWithoutVowels(SENTENCE);
+    }
+
+    @Benchmark
+    public void logWithoutVowelsRebuilt() {
+        logger.log(SENTENCE.replaceAll("[AEIOUaeiou]", ""));
+    }
+
+    @Benchmark
+    public void logAndHighlightPalindromes() {
+        logger.logAndHighlightPalindromes(SENTENCE, ColorCodes.RED);
+    }
+
+    @Benchmark
+    public void logAndHighlightPalindromesRebuilt() {
+        Matcher matcher = Pattern.compile("\\b\\w+\\b").matcher(SENTENCE);
+        StringBuilder highlighted = new StringBuilder();
+        int lastIndex = 0;
+        while (matcher.find()) {
+            String word = matcher.group();
+            String cleanWord = word.replaceAll("[^a-zA-Z]", "").toLowerCase();
+            if (cleanWord.length() > 1 && cleanWord.equals(new StringBuilder(cleanWord).reverse().toString())) {
+                highlighted.append(SENTENCE, lastIndex, matcher.start())
+                        .append(ColorCodes.RED).append(word).append(ColorCodes.RESET);
+                lastIndex = matcher.end();
+            }
+        }
+        logger.log(highlighted.append(SENTENCE.substring(lastIndex)).toString());
+    }
+
+    @Benchmark
+    public void logInMorseCode() {
+        logger.logInMorseCode("hello world");
+    }
+
+    // The 40-entry map the old logInMorseCode built on every call
+    @Benchmark
+    public void logInMorseCodeRebuilt() {
+        Map<Character, String> morseCodeMap = new HashMap<>();
+        for (int i = 0; i < MORSE_LETTERS.length(); i++) {
+            morseCodeMap.put(MORSE_LETTERS.charAt(i), MORSE_CODES[i]);
+        }
+        StringBuilder morse = new StringBuilder();
+        for (char ch : "hello world".toCharArray()) {
+            morse.append(ch == ' ' ? "/" : morseCodeMap.get(ch)).append(" ");
+        }
+        logger.log(morse.toString().trim());
+    }
+
+    @Benchmark
+    public void logInLanguage() {
+        logger.logInLanguage("Hello", "fr");
+    }
+
+    @Benchmark
+    public void logInLanguageRebuilt() {
+        Map<String, String> translations = new HashMap<>();
+        translations.put("Hello", "Hola");
+        translations.put("Goodbye", "Adios");
+        translations.put("Yes", "Sí");
+        translations.put("No", "No");
+        translations.put("Thank you", "Gracias");
+        translations.put("Hello", "Bonjour");
+        translations.put("Thank you", "Merci");
+        logger.log(translations.getOrDefault("Hello", "Hello"));
+    }
+}
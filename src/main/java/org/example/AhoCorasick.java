@@ -0,0 +1,171 @@
+package org.example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Finds every occurrence of any of a set of literal patterns in one left-to-right pass.
+// The trie is compiled into a full transition table over the chars the patterns use (any other
+// char leads back to the root), so matching is one table read per input char. Each state keeps
+// the pattern ending there and a link to the next shorter state that also ends a pattern.
+final class AhoCorasick {
+
+    // Return false to stop the search
+    @FunctionalInterface
+    interface MatchHandler {
+        boolean onMatch(int pattern, int start, int end);
+    }
+
+    private static final int ASCII = 128;
+    private static final int NONE = -1;
+
+    private final String[] patterns;
+    private final boolean ignoreCase;
+    // char -> alphabet class, 0 meaning "no pattern uses it"
+    private final int[] asciiClasses = new int[ASCII];
+    private final char[] otherChars;
+    private final int[] otherClasses;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[] matches;
+    private final int[] outputLinks;
+
+    AhoCorasick(List<String> patterns, boolean ignoreCase) {
+        this.patterns = patterns.toArray(new String[0]);
+        this.ignoreCase = ignoreCase;
+
+        // Alphabet: every distinct char of the patterns gets a class
+        Map<Character, Integer> classes = new HashMap<>();
+        for (String pattern : this.patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be empty.");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                classes.putIfAbsent(fold(pattern.charAt(i)), classes.size() + 1);
+            }
+        }
+        this.alphabetSize = classes.size() + 1;
+        List<Character> others = new ArrayList<>();
+        for (Map.Entry<Character, Integer> entry : classes.entrySet()) {
+            char c = entry.getKey();
+            if (c < ASCII) {
+                asciiClasses[c] = entry.getValue();
+            } else {
+                others.add(c);
+            }
+        }
+        others.sort(null);
+        this.otherChars = new char[others.size()];
+        this.otherClasses = new int[others.size()];
+        for (int i = 0; i < otherChars.length; i++) {
+            otherChars[i] = others.get(i);
+            otherClasses[i] = classes.get(otherChars[i]);
+        }
+
+        // Trie, with NONE for missing edges
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(newRow());
+        ends.add(NONE);
+        for (int p = 0; p < this.patterns.length; p++) {
+            String pattern = this.patterns[p];
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = charClass(pattern.charAt(i));
+                int next = trie.get(state)[c];
+                if (next == NONE) {
+                    next = trie.size();
+                    trie.get(state)[c] = next;
+                    trie.add(newRow());
+                    ends.add(NONE);
+                }
+                state = next;
+            }
+            // With duplicate patterns the first one wins
+            if (ends.get(state) == NONE) {
+                ends.set(state, p);
+            }
+        }
+
+        // Breadth-first: fill missing edges from the failure state, link outputs
+        int states = trie.size();
+        this.transitions = new int[states * alphabetSize];
+        this.matches = new int[states];
+        this.outputLinks = new int[states];
+        int[] failure = new int[states];
+        for (int s = 0; s < states; s++) {
+            matches[s] = ends.get(s);
+            outputLinks[s] = NONE;
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int c = 0; c < alphabetSize; c++) {
+            int next = root[c];
+            if (next == NONE || next == 0) {
+                transitions[c] = 0;
+            } else {
+                transitions[c] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int fail = failure[state];
+            outputLinks[state] = matches[fail] != NONE ? fail : outputLinks[fail];
+            int[] row = trie.get(state);
+            for (int c = 0; c < alphabetSize; c++) {
+                int next = row[c];
+                if (next == NONE) {
+                    transitions[state * alphabetSize + c] = transitions[fail * alphabetSize + c];
+                } else {
+                    transitions[state * alphabetSize + c] = next;
+                    failure[next] = transitions[fail * alphabetSize + c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, NONE);
+        return row;
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private int charClass(char c) {
+        c = fold(c);
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        int at = Arrays.binarySearch(otherChars, c);
+        return at >= 0 ? otherClasses[at] : 0;
+    }
+
+    String pattern(int index) {
+        return patterns[index];
+    }
+
+    // Reports every match, overlapping ones included, in order of end position; at the same end
+    // the longest match comes first
+    void search(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * alphabetSize + charClass(text.charAt(i))];
+            for (int s = matches[state] != NONE ? state : outputLinks[state]; s != NONE; s = outputLinks[s]) {
+                int pattern = matches[s];
+                if (!handler.onMatch(pattern, i + 1 - patterns[pattern].length(), i + 1)) {
+                    return;
+                }
+            }
+        }
+    }
+}
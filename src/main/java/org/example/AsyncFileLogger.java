@@ -0,0 +1,288 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// File logger that hands messages to a single writer thread through a preallocated ring buffer.
+// Producers claim slots with a CAS, the writer batches published slots into a FileChannel that stays open.
+public class AsyncFileLogger implements Logger, AutoCloseable {
+
+    // How the writer thread (and blocked producers) wait when there is nothing to do
+    public enum WaitStrategy {
+        BUSY_SPIN,
+        YIELDING,
+        SLEEPING,
+        BLOCKING
+    }
+
+    // What a producer does when the ring buffer is full
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP,
+        SAMPLE
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_SAMPLE_RATE = 100;
+    private static final int BATCH_BYTES = 64 * 1024;
+
+    private final String[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private volatile long consumed;
+    // Producers between their running check and publishing their slot; the writer only stops once
+    // this is zero, so a message that got past the check is never left in an undrained ring
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final FileChannel channel;
+    private final Thread writer;
+    private final Thread shutdownHook;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+
+    public AsyncFileLogger(String filePath) throws IOException {
+        this(filePath, DEFAULT_CAPACITY, WaitStrategy.BLOCKING, OverflowPolicy.BLOCK, DEFAULT_SAMPLE_RATE);
+    }
+
+    public AsyncFileLogger(String filePath, int capacity, WaitStrategy waitStrategy,
+                           OverflowPolicy overflowPolicy, int sampleRate) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive.");
+        }
+        this.slots = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        this.writer = new Thread(this::drainLoop, "async-file-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        // Make sure queued lines reach the file even if nobody calls close()
+        this.shutdownHook = new Thread(this::shutdown, "async-file-logger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    @Override
+    public void log(String message) {
+        // Counted before running is read: the writer reads the two the other way round, so either
+        // this producer sees the logger closed or the writer sees it in flight
+        inFlight.incrementAndGet();
+        try {
+            if (!running) {
+                System.err.println("Failed to log to file: logger is closed");
+                return;
+            }
+            enqueue(message);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void enqueue(String message) {
+        int capacity = slots.length;
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                if (!onBufferFull()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int index = (int) (sequence & mask);
+        slots[index] = message;
+        published.set(index, sequence);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Returns true if the producer should wait and retry, false if the message is dropped
+    private boolean onBufferFull() {
+        switch (overflowPolicy) {
+            case DROP:
+                return false;
+            case SAMPLE:
+                // Keep one message in every sampleRate overflowing ones, drop the rest
+                if (overflowed.incrementAndGet() % sampleRate != 0) {
+                    return false;
+                }
+                waitForSpace();
+                return true;
+            default:
+                waitForSpace();
+                return true;
+        }
+    }
+
+    private void waitForSpace() {
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        while (running && claimed.get() - consumed >= slots.length) {
+            idle();
+        }
+    }
+
+    private void idle() {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                break;
+            case YIELDING:
+                Thread.yield();
+                break;
+            case SLEEPING:
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                break;
+            default:
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                break;
+        }
+    }
+
+    private void drainLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long next = 0;
+        while (true) {
+            boolean stopping = !running;
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                if (stopping && inFlight.get() == 0 && next >= claimed.get()) {
+                    break;
+                }
+                if (waitStrategy == WaitStrategy.BLOCKING && !stopping) {
+                    writerParked = true;
+                    if (published.get(index) != next && running) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                    }
+                    writerParked = false;
+                } else {
+                    idle();
+                }
+                continue;
+            }
+
+            // Take every slot that is already published and write them as one batch
+            while (published.get(index) == next) {
+                String message = slots[index];
+                slots[index] = null;
+                encode(message, batch, encoder);
+                next++;
+                index = (int) (next & mask);
+            }
+            flush(batch);
+            consumed = next;
+        }
+        flush(batch);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+    }
+
+    private void encode(String message, ByteBuffer batch, CharsetEncoder encoder) {
+        CharBuffer chars = CharBuffer.wrap(message);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, batch, true);
+            if (result.isOverflow()) {
+                flush(batch);
+                continue;
+            }
+            encoder.flush(batch);
+            break;
+        }
+        if (!batch.hasRemaining()) {
+            flush(batch);
+        }
+        batch.put((byte) '\n');
+    }
+
+    private void flush(ByteBuffer batch) {
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                bytesWritten.addAndGet(channel.write(batch));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+        batch.clear();
+    }
+
+    // Number of messages lost because the buffer was full
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public int getQueueDepth() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    private void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stops accepting messages, drains everything already queued and closes the file
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down, the hook takes care of the drain
+        }
+    }
+}
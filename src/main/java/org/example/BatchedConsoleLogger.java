@@ -0,0 +1,247 @@
+package org.example;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Console logger that batches lines instead of calling System.out.println for each one.
+// Each thread encodes its line into its own byte buffer, then appends the whole line to one of
+// several striped batch buffers. A writer thread hands full or aged batches to a FileChannel on
+// stdout, so lines are never split and threads don't queue up on the PrintStream lock.
+public class BatchedConsoleLogger implements Logger, AutoCloseable {
+
+    public static final int DEFAULT_BATCH_BYTES = 32 * 1024;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10;
+    private static final int INITIAL_LINE_BYTES = 512;
+    // Line buffers that grew past this are replaced so one huge message doesn't pin memory per thread
+    private static final int MAX_RETAINED_LINE_BYTES = 16 * 1024;
+
+    private static volatile BatchedConsoleLogger stdout;
+
+    private final FileChannel channel;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long maxDelayNanos;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object flushLock = new Object();
+    private final Thread writer;
+    private final Thread shutdownHook;
+    private final ThreadLocal<LineEncoder> encoders = ThreadLocal.withInitial(LineEncoder::new);
+    private volatile boolean running = true;
+
+    // A batch being filled by producers and a spare one the writer can swap in
+    private static final class Stripe {
+        ByteBuffer active;
+        ByteBuffer spare;
+
+        Stripe(int bytes) {
+            active = ByteBuffer.allocateDirect(bytes);
+            spare = ByteBuffer.allocateDirect(bytes);
+        }
+    }
+
+    private static final class LineEncoder {
+        final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer line = ByteBuffer.allocate(INITIAL_LINE_BYTES);
+    }
+
+    public BatchedConsoleLogger() {
+        this(new FileOutputStream(FileDescriptor.out).getChannel(), DEFAULT_BATCH_BYTES, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    // maxDelayMillis bounds how long a line may sit in a batch before it is written
+    public BatchedConsoleLogger(FileChannel channel, int batchBytes, long maxDelayMillis) {
+        if (batchBytes <= 0 || maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("Batch size and delay must be positive.");
+        }
+        this.channel = channel;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(batchBytes);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+
+        this.writer = new Thread(this::writeLoop, "batched-console-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.shutdownHook = new Thread(this::shutdown, "batched-console-logger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Shared logger for fd 1, so all callers feed the same writer; once closed, the next call starts a new one
+    public static BatchedConsoleLogger stdout() {
+        BatchedConsoleLogger logger = stdout;
+        if (logger == null) {
+            synchronized (BatchedConsoleLogger.class) {
+                logger = stdout;
+                if (logger == null) {
+                    logger = new BatchedConsoleLogger();
+                    stdout = logger;
+                }
+            }
+        }
+        return logger;
+    }
+
+    @Override
+    public void log(String message) {
+        append(Style.PLAIN, message);
+    }
+
+    @Override
+    public void log(String message, String color) {
+        append(Style.of(color), message);
+    }
+
+    // Style bytes are copied in directly, no styled String is built
+    @Override
+    public void logWithStyle(String message, Style style) {
+        append(style, message);
+    }
+
+    private void append(Style style, String message) {
+        ByteBuffer line = encode(style, message);
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        try {
+            synchronized (stripe) {
+                if (stripe.active.remaining() < line.remaining()) {
+                    // Batch is full: write it out ourselves, that's the back-pressure
+                    writeBatch(stripe.active);
+                    if (stripe.active.remaining() < line.remaining()) {
+                        writeLock.lock();
+                        try {
+                            writeFully(line);
+                        } finally {
+                            writeLock.unlock();
+                        }
+                        return;
+                    }
+                }
+                stripe.active.put(line);
+                // Stopped: the final flush may already have passed this stripe, so nobody else will write it
+                if (!running) {
+                    writeBatch(stripe.active);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write to console: " + e.getMessage());
+        }
+    }
+
+    // Encodes "style prefix + message + reset + newline" into this thread's reusable buffer
+    private ByteBuffer encode(Style style, String message) {
+        LineEncoder lineEncoder = encoders.get();
+        ByteBuffer line = lineEncoder.line;
+        if (line.capacity() > MAX_RETAINED_LINE_BYTES) {
+            line = ByteBuffer.allocate(INITIAL_LINE_BYTES);
+            lineEncoder.line = line;
+        }
+        line.clear();
+        // Leave room for the newline
+        line.limit(line.capacity() - 1);
+        while (!style.encode(message, line, lineEncoder.encoder)) {
+            line = ByteBuffer.allocate(line.capacity() * 2);
+            lineEncoder.line = line;
+            line.limit(line.capacity() - 1);
+        }
+        line.limit(line.capacity());
+        line.put((byte) '\n');
+        line.flip();
+        return line;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            LockSupport.parkNanos(this, maxDelayNanos);
+            flush();
+        }
+    }
+
+    // Writes every pending batch; callers see their lines on the console once this returns
+    public void flush() {
+        synchronized (flushLock) {
+            try {
+                for (Stripe stripe : stripes) {
+                    ByteBuffer full;
+                    synchronized (stripe) {
+                        if (stripe.active.position() == 0) {
+                            continue;
+                        }
+                        full = stripe.active;
+                        stripe.active = stripe.spare;
+                        stripe.spare = full;
+                        // Take the channel before letting producers back in, so a batch they
+                        // flush themselves can't overtake the one being written here
+                        writeLock.lock();
+                    }
+                    try {
+                        full.flip();
+                        writeFully(full);
+                    } finally {
+                        full.clear();
+                        writeLock.unlock();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to write to console: " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeBatch(ByteBuffer batch) throws IOException {
+        batch.flip();
+        writeLock.lock();
+        try {
+            writeFully(batch);
+        } finally {
+            batch.clear();
+            writeLock.unlock();
+        }
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // Stops the writer after one last flush; fd 1 itself stays open. Lines logged afterwards are
+    // written straight away instead of batched, and stdout() hands out a fresh logger.
+    @Override
+    public void close() {
+        synchronized (BatchedConsoleLogger.class) {
+            if (stdout == this) {
+                stdout = null;
+            }
+        }
+        shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down, the hook does the final flush
+        }
+    }
+}
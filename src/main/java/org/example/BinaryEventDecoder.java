@@ -0,0 +1,154 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Reads records written by BinaryEventEncoder. As a tool it turns binary log files back into text:
+//   java -cp <classpath> org.example.BinaryEventDecoder app.binlog [more.binlog ...]
+public final class BinaryEventDecoder {
+
+    private static final DateTimeFormatter TIMESTAMP = LoggerCaches.formatter("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private BinaryEventDecoder() {
+    }
+
+    // Decodes the next record, or returns null (leaving the position untouched) if it is incomplete
+    public static LogEvent decode(ByteBuffer in) {
+        int start = in.position();
+        try {
+            int bodyLength = readVarint(in);
+            if (in.remaining() < bodyLength) {
+                in.position(start);
+                return null;
+            }
+            long timestamp = readVarlong(in);
+            int level = readVarint(in);
+            String category = readString(in);
+            String template = readString(in);
+
+            Object[] args = new Object[readVarint(in)];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = readArg(in);
+            }
+
+            Map<String, String> context = null;
+            int contextSize = readVarint(in);
+            if (contextSize > 0) {
+                context = new LinkedHashMap<>();
+                for (int i = 0; i < contextSize - 1; i++) {
+                    context.put(readString(in), readString(in));
+                }
+            }
+            return LogEvent.owning(timestamp, level, category, template, args, context);
+        } catch (BufferUnderflowException e) {
+            in.position(start);
+            return null;
+        }
+    }
+
+    // "2024-10-06 14:32:00.123 INFO [CATEGORY] message [key=value]"
+    public static String toText(LogEvent event) {
+        StringBuilder out = new StringBuilder(64);
+        out.append(TIMESTAMP.format(Instant.ofEpochMilli(event.getTimestamp()).atZone(ZoneId.systemDefault())));
+        if (event.getLevel() > 0) {
+            out.append(' ').append(Levels.name(event.getLevel()));
+        }
+        out.append(' ');
+        event.appendTo(out);
+        return out.toString();
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryEventDecoder <binary log file>...");
+            return;
+        }
+        for (String file : args) {
+            try {
+                decodeFile(file, System.out::println);
+            } catch (IOException e) {
+                System.err.println("Failed to read log file: " + e.getMessage());
+            }
+        }
+    }
+
+    public static void decodeFile(String filePath, Logger output) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                endOfFile = channel.read(buffer) < 0;
+                buffer.flip();
+                LogEvent event;
+                while ((event = decode(buffer)) != null) {
+                    output.log(toText(event));
+                }
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    // A single record bigger than the buffer
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    buffer = larger.put(buffer);
+                }
+            }
+            if (buffer.position() > 0) {
+                System.err.println("Ignoring truncated record at end of " + filePath);
+            }
+        }
+    }
+
+    private static Object readArg(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case BinaryEventEncoder.TAG_NULL:
+                return null;
+            case BinaryEventEncoder.TAG_LONG:
+                long zigzag = readVarlong(in);
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            case BinaryEventEncoder.TAG_DOUBLE:
+                return in.getDouble();
+            case BinaryEventEncoder.TAG_BOOLEAN:
+                return in.get() != 0;
+            case BinaryEventEncoder.TAG_STRING:
+                return readString(in);
+            default:
+                throw new IllegalArgumentException("Unknown argument tag: " + tag);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        return (int) readVarlong(in);
+    }
+
+    private static long readVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
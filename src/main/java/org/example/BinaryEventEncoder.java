@@ -0,0 +1,209 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// Compact binary form of a LogEvent. Each record is
+//   varint bodyLength, then the body:
+//   varlong timestamp, varint level, string category, string template,
+//   varint argCount, args as (tag byte, value), varint contextSize (or 0 = none), key/value strings.
+// Strings are varint (utf8Length + 1) followed by UTF-8 bytes, with 0 standing for null.
+// Integral args are zigzag varlongs, doubles are 8 raw bytes, anything else goes as its string form.
+public final class BinaryEventEncoder {
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_LONG = 1;
+    static final byte TAG_DOUBLE = 2;
+    static final byte TAG_STRING = 3;
+    static final byte TAG_BOOLEAN = 4;
+
+    private BinaryEventEncoder() {
+    }
+
+    // Size of the whole record including its length prefix
+    public static int encodedSize(LogEvent event) {
+        int body = bodySize(event);
+        return varintSize(body) + body;
+    }
+
+    // Writes one record, or nothing and returns false if the buffer doesn't have room for it
+    public static boolean encode(LogEvent event, ByteBuffer out) {
+        int body = bodySize(event);
+        if (out.remaining() < varintSize(body) + body) {
+            return false;
+        }
+        writeVarint(out, body);
+        writeVarlong(out, event.getTimestamp());
+        writeVarint(out, event.getLevel());
+        writeString(out, event.getCategory());
+        writeString(out, event.getTemplate());
+
+        int argCount = event.argCount();
+        writeVarint(out, argCount);
+        for (int i = 0; i < argCount; i++) {
+            writeArg(out, event.arg(i));
+        }
+
+        Map<String, String> context = event.context();
+        if (context == null) {
+            writeVarint(out, 0);
+        } else {
+            // Stored as size + 1 so an empty context survives the round trip
+            writeVarint(out, context.size() + 1);
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+        return true;
+    }
+
+    private static int bodySize(LogEvent event) {
+        int size = varlongSize(event.getTimestamp())
+                + varintSize(event.getLevel())
+                + stringSize(event.getCategory())
+                + stringSize(event.getTemplate());
+
+        int argCount = event.argCount();
+        size += varintSize(argCount);
+        for (int i = 0; i < argCount; i++) {
+            size += argSize(event.arg(i));
+        }
+
+        Map<String, String> context = event.context();
+        if (context == null) {
+            size += 1;
+        } else {
+            size += varintSize(context.size() + 1);
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                size += stringSize(entry.getKey()) + stringSize(entry.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static void writeArg(ByteBuffer out, Object arg) {
+        if (arg == null) {
+            out.put(TAG_NULL);
+        } else if (isIntegral(arg)) {
+            out.put(TAG_LONG);
+            writeVarlong(out, zigzag(((Number) arg).longValue()));
+        } else if (arg instanceof Double || arg instanceof Float) {
+            out.put(TAG_DOUBLE);
+            out.putDouble(((Number) arg).doubleValue());
+        } else if (arg instanceof Boolean) {
+            out.put(TAG_BOOLEAN);
+            out.put((byte) ((Boolean) arg ? 1 : 0));
+        } else {
+            out.put(TAG_STRING);
+            writeString(out, arg.toString());
+        }
+    }
+
+    private static int argSize(Object arg) {
+        if (arg == null) {
+            return 1;
+        } else if (isIntegral(arg)) {
+            return 1 + varlongSize(zigzag(((Number) arg).longValue()));
+        } else if (arg instanceof Double || arg instanceof Float) {
+            return 1 + Double.BYTES;
+        } else if (arg instanceof Boolean) {
+            return 2;
+        }
+        return 1 + stringSize(arg.toString());
+    }
+
+    private static boolean isIntegral(Object arg) {
+        return arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static void writeVarint(ByteBuffer out, int value) {
+        writeVarlong(out, value & 0xFFFFFFFFL);
+    }
+
+    static void writeVarlong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int varintSize(int value) {
+        return varlongSize(value & 0xFFFFFFFFL);
+    }
+
+    static int varlongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeString(ByteBuffer out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        writeVarint(out, utf8Length(value) + 1);
+        // Encode in place instead of going through getBytes()
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int bytes = utf8Length(value);
+        return varintSize(bytes + 1) + bytes;
+    }
+
+    // Matches writeString: a lone surrogate is written as a single '?'
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,121 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// File sink that keeps events structured: every call is stored as a BinaryEventEncoder record
+// and nothing is rendered to text. Read the file back with BinaryEventDecoder.
+public class BinaryFileLogger implements Logger, AutoCloseable {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final boolean autoFlush;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final Thread shutdownHook;
+    private boolean closed;
+
+    // autoFlush writes every record through to the file; otherwise records are written in 64 KB batches
+    public BinaryFileLogger(String filePath, boolean autoFlush) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.autoFlush = autoFlush;
+
+        // Make sure buffered records reach the file even if nobody calls close()
+        this.shutdownHook = new Thread(this::close, "binary-file-logger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    @Override
+    public void log(String message) {
+        log(LogEvent.of(message));
+    }
+
+    @Override
+    public synchronized void log(LogEvent event) {
+        if (closed) {
+            System.err.println("Failed to log to file: logger is closed");
+            return;
+        }
+        try {
+            if (!BinaryEventEncoder.encode(event, buffer)) {
+                flushBuffer();
+                if (!BinaryEventEncoder.encode(event, buffer)) {
+                    // Larger than the whole buffer, write it on its own
+                    ByteBuffer large = ByteBuffer.allocate(BinaryEventEncoder.encodedSize(event));
+                    BinaryEventEncoder.encode(event, large);
+                    large.flip();
+                    write(large);
+                }
+            }
+            if (autoFlush) {
+                flushBuffer();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+    }
+
+    // Level methods keep the level, template and argument as separate fields
+    @Override
+    public void logAtLevel(int level, String message) {
+        log(new LogEvent(System.currentTimeMillis(), level, null, message, null, null));
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, long arg) {
+        log(LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, double arg) {
+        log(LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, String arg) {
+        log(LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+    }
+
+    public synchronized void flush() {
+        try {
+            flushBuffer();
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down, this is the hook running
+        }
+        flush();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+    }
+}
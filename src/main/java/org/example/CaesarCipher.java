@@ -0,0 +1,129 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+// Caesar shift of ASCII letters, keeping case; everything else passes through unchanged.
+// Both directions are precomputed lookup tables, so encoding is one array read per char with
+// no branching on letter case. The ByteBuffer methods work on UTF-8 bytes directly: ASCII letters
+// are single bytes and every byte of a multi-byte sequence is >= 0x80, so those pass through.
+public final class CaesarCipher {
+
+    private static final int TABLE_SIZE = 128;
+    private static final CaesarCipher[] SHIFTS = new CaesarCipher[26];
+
+    static {
+        for (int shift = 0; shift < SHIFTS.length; shift++) {
+            SHIFTS[shift] = new CaesarCipher(shift);
+        }
+    }
+
+    public static final CaesarCipher ROT13 = of(13);
+
+    private final int shift;
+    private final char[] encodeTable = new char[TABLE_SIZE];
+    private final char[] decodeTable = new char[TABLE_SIZE];
+
+    private CaesarCipher(int shift) {
+        this.shift = shift;
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            encodeTable[c] = rotate(c, shift);
+            decodeTable[c] = rotate(c, 26 - shift);
+        }
+    }
+
+    // Any int works, shifts are taken modulo 26 and a negative one moves backwards
+    public static CaesarCipher of(int shift) {
+        return SHIFTS[Math.floorMod(shift, 26)];
+    }
+
+    private static char rotate(char c, int shift) {
+        if (c >= 'a' && c <= 'z') {
+            return (char) ('a' + (c - 'a' + shift) % 26);
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return (char) ('A' + (c - 'A' + shift) % 26);
+        }
+        return c;
+    }
+
+    public int getShift() {
+        return shift;
+    }
+
+    public char encode(char c) {
+        return c < TABLE_SIZE ? encodeTable[c] : c;
+    }
+
+    public char decode(char c) {
+        return c < TABLE_SIZE ? decodeTable[c] : c;
+    }
+
+    public String encode(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length());
+        encode(text, out);
+        return out.toString();
+    }
+
+    public String decode(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length());
+        decode(text, out);
+        return out.toString();
+    }
+
+    public void encode(CharSequence text, StringBuilder out) {
+        translate(text, out, encodeTable);
+    }
+
+    public void decode(CharSequence text, StringBuilder out) {
+        translate(text, out, decodeTable);
+    }
+
+    public void encode(CharSequence text, Appendable out) throws IOException {
+        translate(text, out, encodeTable);
+    }
+
+    public void decode(CharSequence text, Appendable out) throws IOException {
+        translate(text, out, decodeTable);
+    }
+
+    // Copies as many bytes as fit from in to out, shifting ASCII letters; call again once out is drained
+    public void encode(ByteBuffer in, ByteBuffer out) {
+        translate(in, out, encodeTable);
+    }
+
+    public void decode(ByteBuffer in, ByteBuffer out) {
+        translate(in, out, decodeTable);
+    }
+
+    private static void translate(CharSequence text, StringBuilder out, char[] table) {
+        try {
+            translate(text, (Appendable) out, table);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void translate(CharSequence text, Appendable out, char[] table) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            out.append(c < TABLE_SIZE ? table[c] : c);
+        }
+    }
+
+    private static void translate(ByteBuffer in, ByteBuffer out, char[] table) {
+        int count = Math.min(in.remaining(), out.remaining());
+        for (int i = 0; i < count; i++) {
+            byte b = in.get();
+            out.put(b >= 0 ? (byte) table[b] : b);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CaesarCipher[shift=" + shift + "]";
+    }
+}
@@ -0,0 +1,323 @@
+package org.example;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Filter stage in front of another logger, for floods of the same message during an incident.
+//
+// Deduplication: every message gets a 64-bit fingerprint (from String.hashCode, which Strings
+// cache, and the length; for events also the level, arguments, category and context), stored in a
+// direct-mapped table of the last fingerprints seen. A message whose fingerprint is already in its
+// slot and whose window hasn't ended is dropped and counted; once the window ends a "Suppressed N
+// duplicates of: ..." line with the first message as it was rendered goes to the delegate.
+//
+// Rate limiting: each key (the message, or the template for the template calls) maps to one of
+// a fixed number of token buckets, run as GCRA: a bucket is a single "theoretical arrival time"
+// updated by CAS, allowing burst messages at once and messagesPerSecond after that.
+//
+// Everything is in atomic arrays, so deciding to drop a message takes no lock and allocates
+// nothing; the template calls decide before the line is formatted. Slots and buckets are shared by
+// keys that hash alike, which is the price of the fixed size.
+public class FilteringLogger implements Logger, AutoCloseable {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 10_000;
+    public static final int DEFAULT_SLOTS = 1024;
+    public static final double DEFAULT_MESSAGES_PER_SECOND = 10;
+    public static final int DEFAULT_BURST = 20;
+
+    private static final long EMPTY = 0;
+    // claim() results other than a slot
+    private static final int DUPLICATE = -1;
+    private static final int UNCLAIMED = -2;
+
+    private final Logger delegate;
+    private final long windowNanos;
+    private final int mask;
+
+    private final AtomicLongArray fingerprints;
+    private final AtomicLongArray windowStarts;
+    private final AtomicIntegerArray duplicates;
+    // The message a slot's summary refers to: the caller's String, or a LogEvent rendered only
+    // when a summary is written
+    private final AtomicReferenceArray<Object> samples;
+
+    private final AtomicLongArray arrivalTimes;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder rateLimitedSinceReport = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+    private final long startNanos = System.nanoTime();
+
+    public FilteringLogger(Logger delegate) {
+        this(delegate, DEFAULT_WINDOW_MILLIS, DEFAULT_SLOTS, DEFAULT_MESSAGES_PER_SECOND, DEFAULT_BURST);
+    }
+
+    // slots is rounded up to a power of two and used for both the fingerprint table and the buckets
+    public FilteringLogger(Logger delegate, long windowMillis, int slots, double messagesPerSecond, int burst) {
+        if (windowMillis <= 0 || slots <= 0 || messagesPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Window, slots, rate and burst must be positive.");
+        }
+        if (slots > 1 << 24) {
+            throw new IllegalArgumentException("Too many slots: " + slots);
+        }
+        this.delegate = delegate;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        int size = Integer.bitCount(slots) == 1 ? slots : Integer.highestOneBit(slots) << 1;
+        this.mask = size - 1;
+        this.fingerprints = new AtomicLongArray(size);
+        this.windowStarts = new AtomicLongArray(size);
+        this.duplicates = new AtomicIntegerArray(size);
+        this.samples = new AtomicReferenceArray<>(size);
+        this.arrivalTimes = new AtomicLongArray(size);
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / messagesPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "filtering-logger-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, windowMillis / 2);
+        sweeper.scheduleAtFixedRate(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Disabled levels are rejected by the delegate's level before any filtering work
+    @Override
+    public int getLevel() {
+        return delegate.getLevel();
+    }
+
+    @Override
+    public void log(String message) {
+        long fingerprint = fingerprint(message);
+        if (admit(fingerprint, fingerprint, message)) {
+            delegate.log(message);
+        }
+    }
+
+    @Override
+    public void log(String message, String color) {
+        long fingerprint = fingerprint(message);
+        if (admit(fingerprint, fingerprint, message)) {
+            delegate.log(message, color);
+        }
+    }
+
+    @Override
+    public void log(LogEvent event) {
+        long key = fingerprint(event.getTemplate()) * 31 + event.getLevel();
+        long fingerprint = key;
+        for (int i = 0; i < event.argCount(); i++) {
+            Object arg = event.arg(i);
+            fingerprint = fingerprint * 31 + (arg == null ? 0 : arg.hashCode());
+        }
+        if (event.getCategory() != null) {
+            fingerprint = fingerprint * 31 + event.getCategory().hashCode();
+        }
+        if (event.context() != null) {
+            // Map.hashCode adds up the entries' hashes; a Snapshot caches it
+            fingerprint = fingerprint * 31 + event.context().hashCode();
+        }
+        if (admit(mix(fingerprint), key, event)) {
+            delegate.log(event);
+        }
+    }
+
+    @Override
+    public void logAtLevel(int level, String message) {
+        long fingerprint = fingerprint(message) * 31 + level;
+        if (admit(mix(fingerprint), fingerprint, message)) {
+            delegate.logAtLevel(level, message);
+        }
+    }
+
+    // The template calls only build their sample event when a new window starts, so a dropped
+    // duplicate still allocates nothing
+    @Override
+    public void logAtLevel(int level, String template, long arg) {
+        long key = fingerprint(template) * 31 + level;
+        long now = System.nanoTime();
+        int slot = claim(mix(key * 31 + arg), now);
+        if (slot == DUPLICATE) {
+            return;
+        }
+        if (slot != UNCLAIMED) {
+            startWindow(slot, now, LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+        }
+        if (withinRate(key, now)) {
+            delegate.logAtLevel(level, template, arg);
+        }
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, double arg) {
+        long key = fingerprint(template) * 31 + level;
+        long now = System.nanoTime();
+        int slot = claim(mix(key * 31 + Double.doubleToLongBits(arg)), now);
+        if (slot == DUPLICATE) {
+            return;
+        }
+        if (slot != UNCLAIMED) {
+            startWindow(slot, now, LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+        }
+        if (withinRate(key, now)) {
+            delegate.logAtLevel(level, template, arg);
+        }
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, String arg) {
+        long key = fingerprint(template) * 31 + level;
+        long now = System.nanoTime();
+        int slot = claim(mix(key * 31 + fingerprint(arg)), now);
+        if (slot == DUPLICATE) {
+            return;
+        }
+        if (slot != UNCLAIMED) {
+            startWindow(slot, now, LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+        }
+        if (withinRate(key, now)) {
+            delegate.logAtLevel(level, template, arg);
+        }
+    }
+
+    // True if the message should go through: not a duplicate within its window and within its rate
+    private boolean admit(long fingerprint, long rateKey, Object sample) {
+        long now = System.nanoTime();
+        int slot = claim(fingerprint, now);
+        if (slot == DUPLICATE) {
+            return false;
+        }
+        if (slot != UNCLAIMED) {
+            startWindow(slot, now, sample);
+        }
+        return withinRate(rateKey, now);
+    }
+
+    // DUPLICATE if the fingerprint is in its slot and the window hasn't ended; otherwise the slot
+    // if this call took it over for a new window, or UNCLAIMED if another thread won the race for
+    // it, in which case the message simply goes through undeduplicated
+    private int claim(long fingerprint, long now) {
+        if (fingerprint == EMPTY) {
+            fingerprint = 1;
+        }
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        long seen = fingerprints.get(slot);
+        if (seen == fingerprint && now - windowStarts.get(slot) < windowNanos) {
+            duplicates.incrementAndGet(slot);
+            suppressed.increment();
+            return DUPLICATE;
+        }
+        return fingerprints.compareAndSet(slot, seen, fingerprint) ? slot : UNCLAIMED;
+    }
+
+    // Summarizes the slot's previous window, if it had duplicates, and starts a new one
+    private void startWindow(int slot, long now, Object sample) {
+        Object previous = samples.getAndSet(slot, sample);
+        windowStarts.set(slot, now);
+        int count = duplicates.getAndSet(slot, 0);
+        if (count > 0) {
+            reportDuplicates(count, previous);
+        }
+    }
+
+    private boolean withinRate(long rateKey, long now) {
+        if (!tryAcquire(rateKey, now)) {
+            rateLimited.increment();
+            rateLimitedSinceReport.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // GCRA: allowed unless the bucket's theoretical arrival time is more than the burst ahead of now
+    private boolean tryAcquire(long key, long now) {
+        int bucket = (int) mix(key) & mask;
+        // Relative to construction, so a bucket's initial 0 reads as "long ago"
+        long relativeNow = now - startNanos;
+        while (true) {
+            long arrival = arrivalTimes.get(bucket);
+            long earliest = Math.max(arrival, relativeNow);
+            if (earliest - relativeNow > burstToleranceNanos) {
+                return false;
+            }
+            if (arrivalTimes.compareAndSet(bucket, arrival, earliest + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    // Emits summaries for windows that ended without a repeat of their message
+    private void sweep() {
+        long now = System.nanoTime();
+        for (int slot = 0; slot <= mask; slot++) {
+            if (duplicates.get(slot) > 0 && now - windowStarts.get(slot) >= windowNanos) {
+                int count = duplicates.getAndSet(slot, 0);
+                if (count > 0) {
+                    reportDuplicates(count, samples.get(slot));
+                }
+            }
+        }
+        long limited = rateLimitedSinceReport.sumThenReset();
+        if (limited > 0) {
+            delegate.log("Rate limited " + limited + " messages");
+        }
+    }
+
+    // An event sample is rendered with its arguments, category and context, as it was delivered
+    private void reportDuplicates(int count, Object sample) {
+        delegate.log("Suppressed " + count + " duplicates of: " + sample);
+    }
+
+    private static long fingerprint(String text) {
+        return mix(((long) text.hashCode() << 32) ^ text.length());
+    }
+
+    // murmur3 fmix64
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // Duplicates dropped so far, including those already summarized
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    // Stops the sweeper and reports whatever is still pending, whether or not its window ended
+    @Override
+    public void close() {
+        sweeper.shutdown();
+        try {
+            sweeper.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int slot = 0; slot <= mask; slot++) {
+            int count = duplicates.getAndSet(slot, 0);
+            if (count > 0) {
+                reportDuplicates(count, samples.get(slot));
+            }
+        }
+        long limited = rateLimitedSinceReport.sumThenReset();
+        if (limited > 0) {
+            delegate.log("Rate limited " + limited + " messages");
+        }
+    }
+}
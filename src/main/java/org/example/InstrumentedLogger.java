@@ -0,0 +1,94 @@
+package org.example;
+
+// Wraps a sink so LoggerMetrics can see it: every call is counted by level and the time spent in
+// the sink's log call goes to the sink's latency histogram. Use one per sink, named after it:
+//   Logger console = Logger.getInstrumentedLogger("console", Logger.getBatchedConsoleLogger());
+// Levels are checked against the sink's own level before anything is measured. Closing the wrapper
+// closes the sink, if it can be closed.
+public class InstrumentedLogger implements Logger, AutoCloseable {
+
+    private final Logger delegate;
+    private final LoggerMetrics.Sink metrics;
+
+    public InstrumentedLogger(String name, Logger delegate) {
+        this(name, delegate, LoggerMetrics.global());
+    }
+
+    public InstrumentedLogger(String name, Logger delegate, LoggerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics.sink(name, delegate);
+    }
+
+    @Override
+    public int getLevel() {
+        return delegate.getLevel();
+    }
+
+    @Override
+    public void log(String message) {
+        long start = System.nanoTime();
+        delegate.log(message);
+        metrics.record(0, System.nanoTime() - start);
+    }
+
+    @Override
+    public void log(String message, String color) {
+        long start = System.nanoTime();
+        delegate.log(message, color);
+        metrics.record(0, System.nanoTime() - start);
+    }
+
+    @Override
+    public void log(LogEvent event) {
+        long start = System.nanoTime();
+        delegate.log(event);
+        metrics.record(event.getLevel(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void logAtLevel(int level, String message) {
+        long start = System.nanoTime();
+        delegate.logAtLevel(level, message);
+        metrics.record(level, System.nanoTime() - start);
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, long arg) {
+        long start = System.nanoTime();
+        delegate.logAtLevel(level, template, arg);
+        metrics.record(level, System.nanoTime() - start);
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, double arg) {
+        long start = System.nanoTime();
+        delegate.logAtLevel(level, template, arg);
+        metrics.record(level, System.nanoTime() - start);
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, String arg) {
+        long start = System.nanoTime();
+        delegate.logAtLevel(level, template, arg);
+        metrics.record(level, System.nanoTime() - start);
+    }
+
+    // Left to the sink, so a JSON sink writes the data's fields itself
+    @Override
+    public void logAsJson(Object data) {
+        long start = System.nanoTime();
+        delegate.logAsJson(data);
+        metrics.record(0, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        if (delegate instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) delegate).close();
+            } catch (Exception e) {
+                System.err.println("Failed to close logger: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Writes one JSON object per line through a single reused JsonGenerator, straight into the
+// output stream. Fields always come in the same order so downstream parsers can rely on it:
+//   timestamp (epoch millis), level, category, message, context (keys sorted), data
+// Fields that an event doesn't have are left out rather than written as null. Data that Jackson
+// can't serialize is written as its toString(), as logAsJson always did, and a line that fails
+// halfway is cut off so the next one still starts a fresh object.
+public class JsonLinesLogger implements Logger, AutoCloseable {
+
+    public enum FlushPolicy {
+        // Flush after every line
+        EVERY_EVENT,
+        // Flush after every batchSize lines
+        BATCH,
+        // Only flush when the generator's buffer fills up, on flush() and on close()
+        MANUAL
+    }
+
+    private final OutputStream out;
+    private final boolean closeStream;
+    private JsonGenerator generator;
+    private final FlushPolicy flushPolicy;
+    private final int batchSize;
+    private final StringBuilder message = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private String[] keys = new String[8];
+    private int pending;
+    private boolean closed;
+
+    // closeStream decides whether close() also closes the underlying stream (false for System.out)
+    public JsonLinesLogger(OutputStream out, boolean closeStream, FlushPolicy flushPolicy, int batchSize)
+            throws IOException {
+        if (flushPolicy == FlushPolicy.BATCH && batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.out = out;
+        this.closeStream = closeStream;
+        this.generator = createGenerator();
+        this.flushPolicy = flushPolicy;
+        this.batchSize = batchSize;
+    }
+
+    private JsonGenerator createGenerator() throws IOException {
+        JsonGenerator created = LoggerCaches.JSON_MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        created.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, closeStream);
+        // Lines are terminated explicitly, so no separator in front of the next object
+        created.setRootValueSeparator(null);
+        return created;
+    }
+
+    @Override
+    public void log(String message) {
+        write(System.currentTimeMillis(), 0, null, message, null, null, null);
+    }
+
+    @Override
+    public void log(LogEvent event) {
+        write(event.getTimestamp(), event.getLevel(), event.getCategory(), null, event, event.context(), null);
+    }
+
+    // The color only matters on a terminal; in JSON the message stays plain
+    @Override
+    public void log(String message, String color) {
+        log(message);
+    }
+
+    @Override
+    public void logAtLevel(int level, String message) {
+        write(System.currentTimeMillis(), level, null, message, null, null, null);
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, long arg) {
+        log(LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, double arg) {
+        log(LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, String arg) {
+        log(LogEvent.owning(System.currentTimeMillis(), level, null, template, new Object[]{arg}, null));
+    }
+
+    // The object is serialized as the "data" field instead of being turned into a String first
+    @Override
+    public void logAsJson(Object data) {
+        write(System.currentTimeMillis(), 0, null, null, null, null, data);
+    }
+
+    private synchronized void write(long timestamp, int level, String category, String text,
+                                    LogEvent event, Map<String, String> context, Object data) {
+        if (closed) {
+            System.err.println("Failed to write JSON log: logger is closed");
+            return;
+        }
+        // Serialized up front, so a bean Jackson rejects can't leave the line's object open
+        TokenBuffer dataTokens = data == null ? null : serialize(data);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("timestamp", timestamp);
+            if (level > 0) {
+                generator.writeStringField("level", Levels.name(level));
+            }
+            if (category != null) {
+                generator.writeStringField("category", category);
+            }
+            if (text != null) {
+                generator.writeStringField("message", text);
+            } else if (event != null) {
+                generator.writeFieldName("message");
+                writeMessage(event);
+            }
+            if (context != null) {
+                writeContext(context);
+            }
+            if (dataTokens != null) {
+                generator.writeFieldName("data");
+                dataTokens.serialize(generator);
+            } else if (data != null) {
+                generator.writeStringField("data", data.toString());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (flushPolicy == FlushPolicy.EVERY_EVENT
+                    || (flushPolicy == FlushPolicy.BATCH && ++pending >= batchSize)) {
+                generator.flush();
+                pending = 0;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write JSON log: " + e.getMessage());
+            if (!generator.getOutputContext().inRoot()) {
+                restartLine();
+            }
+        }
+    }
+
+    private TokenBuffer serialize(Object data) {
+        TokenBuffer tokens = new TokenBuffer(LoggerCaches.JSON_MAPPER, false);
+        try {
+            LoggerCaches.JSON_MAPPER.writeValue(tokens, data);
+            return tokens;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // A generator can't leave an object it is in, so it is closed: what it buffered goes out and
+    // its buffers are released, but the stream stays open. The half-written line is ended and a
+    // new generator takes over from the next one
+    private void restartLine() {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            generator.close();
+        } catch (IOException ignored) {
+            // The stream is what failed; the new generator will report it again if it stays broken
+        }
+        try {
+            generator = createGenerator();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            System.err.println("Failed to write JSON log: " + e.getMessage());
+        }
+    }
+
+    // Formats the template into a reused buffer and hands the chars to the generator, no String in between
+    private void writeMessage(LogEvent event) throws IOException {
+        message.setLength(0);
+        event.appendMessage(message);
+        int length = message.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        message.getChars(0, length, chars, 0);
+        generator.writeString(chars, 0, length);
+    }
+
+    private void writeContext(Map<String, String> context) throws IOException {
+        generator.writeObjectFieldStart("context");
+        if (context instanceof SortedMap) {
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+        } else {
+            int size = context.size();
+            if (keys.length < size) {
+                keys = new String[Math.max(size, keys.length * 2)];
+            }
+            int count = 0;
+            for (String key : context.keySet()) {
+                keys[count++] = key;
+            }
+            Arrays.sort(keys, 0, count);
+            for (int i = 0; i < count; i++) {
+                generator.writeStringField(keys[i], context.get(keys[i]));
+                keys[i] = null;
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    public synchronized void flush() {
+        try {
+            generator.flush();
+            pending = 0;
+        } catch (IOException e) {
+            System.err.println("Failed to write JSON log: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            generator.close();
+        } catch (IOException e) {
+            System.err.println("Failed to write JSON log: " + e.getMessage());
+        }
+    }
+}
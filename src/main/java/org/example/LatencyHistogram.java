@@ -0,0 +1,160 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear histogram of durations in nanoseconds, in the style of HdrHistogram: each power of two
+// is split into 32 linear sub-buckets, so a recorded value is off by at most 1/32 (about 3%) of
+// itself, from 1ns up to MAX_TRACKABLE_NANOS (about 18 minutes) in 1152 buckets. Recording is one
+// bucket increment, picked from a few stripes by thread so that threads logging at the same time
+// don't all hit the same counter; percentiles are read from a snapshot that merges the stripes.
+public final class LatencyHistogram {
+
+    public static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = bucket(MAX_TRACKABLE_NANOS) + 1;
+    private static final int STRIPES = Math.min(4, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS * STRIPES);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    // Larger values are recorded as MAX_TRACKABLE_NANOS, negative ones as 0
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.getAndIncrement(stripe * BUCKETS + bucket(value));
+        total.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    // Values below 32 get a bucket each; above that, bucket = 32 per power of two + top 5 bits
+    // below the leading one, which continues the same numbering
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Largest value that falls in bucket
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // Not atomic with concurrent record() calls: a value recorded meanwhile may be half in
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                long bucketCount = counts.get(stripe * BUCKETS + bucket);
+                merged[bucket] += bucketCount;
+                count += bucketCount;
+            }
+        }
+        return new Snapshot(merged, count, total.sum(), max.get());
+    }
+
+    static Snapshot emptySnapshot() {
+        return new Snapshot(new long[BUCKETS], 0, 0, 0);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        max.set(0);
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxNanos() {
+            return max;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        // The value at or below which the given share of the recorded values lies, e.g. 0.99; 0 if empty
+        public long percentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1.");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return Math.min(highestValue(bucket), max);
+                }
+            }
+            return max;
+        }
+
+        // Both histograms' values together, e.g. the latencies of several sinks
+        public Snapshot merge(Snapshot other) {
+            long[] merged = counts.clone();
+            for (int bucket = 0; bucket < merged.length; bucket++) {
+                merged[bucket] += other.counts[bucket];
+            }
+            return new Snapshot(merged, count + other.count, total + other.total, Math.max(max, other.max));
+        }
+
+        // e.g. "count=1200 mean=4.1µs p50=3.2µs p99=18.4µs p99.9=120.5µs max=1.3ms"
+        @Override
+        public String toString() {
+            return "count=" + count
+                    + " mean=" + formatNanos(Math.round(getMeanNanos()))
+                    + " p50=" + formatNanos(percentileNanos(0.5))
+                    + " p99=" + formatNanos(percentileNanos(0.99))
+                    + " p99.9=" + formatNanos(percentileNanos(0.999))
+                    + " max=" + formatNanos(max);
+        }
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return Math.round(nanos / 100.0) / 10.0 + "µs";
+        }
+        if (nanos < 1_000_000_000) {
+            return Math.round(nanos / 100_000.0) / 10.0 + "ms";
+        }
+        return Math.round(nanos / 100_000_000.0) / 10.0 + "s";
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+// Console logger with its own log level that can be changed while the application runs.
+// The level is a plain volatile int so a disabled check is a single load and compare.
+public class LevelBasedLogger implements Logger {
+
+    private final String name;
+    private volatile int level;
+
+    public LevelBasedLogger(int level) {
+        this(null, level);
+    }
+
+    LevelBasedLogger(String name, int level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    @Override
+    public void log(String message) {
+        System.out.println(message);
+    }
+
+    @Override
+    public boolean shouldLog(int messageLogLevel) {
+        return messageLogLevel <= level;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    // Named loggers are configured through the registry so their children pick the change up as well
+    public void setLevel(int level) {
+        if (name != null) {
+            LoggerRegistry.setLevel(name, level);
+        } else {
+            this.level = level;
+        }
+    }
+
+    // Registry name, or null for loggers created with getLevelBasedLogger
+    public String getName() {
+        return name;
+    }
+
+    // Called by the registry with the level resolved from the nearest configured ancestor
+    void applyEffectiveLevel(int level) {
+        this.level = level;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example;
+
+// Display names and console colors of the Logger level constants
+final class Levels {
+
+    private Levels() {
+    }
+
+    static String name(int level) {
+        switch (level) {
+            case Logger.ERROR:
+                return "ERROR";
+            case Logger.WARNING:
+                return "WARNING";
+            case Logger.INFO:
+                return "INFO";
+            case Logger.DEBUG:
+                return "DEBUG";
+            default:
+                return "TRACE";
+        }
+    }
+
+    static String color(int level) {
+        switch (level) {
+            case Logger.ERROR:
+                return "\u001B[31m";
+            case Logger.WARNING:
+                return "\u001B[33m";
+            case Logger.INFO:
+                return "\u001B[32m";
+            case Logger.DEBUG:
+                return "\u001B[34m";
+            default:
+                return "\u001B[35m";
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+// MDC-style key/value context for the current thread, picked up by logWithContext(String).
+// The context is always an immutable Snapshot: put() and remove() build a new one and swap it in,
+// so handing the context to another thread or an async sink is just passing a reference.
+// Threads started from a thread with context inherit its snapshot; for pooled threads use wrap().
+public final class LogContext {
+
+    private static final InheritableThreadLocal<Snapshot> CURRENT = new InheritableThreadLocal<>() {
+        @Override
+        protected Snapshot initialValue() {
+            return Snapshot.EMPTY;
+        }
+    };
+
+    private LogContext() {
+    }
+
+    // O(1): the snapshot never changes, later puts replace it instead
+    public static Snapshot current() {
+        return CURRENT.get();
+    }
+
+    public static void put(String key, String value) {
+        CURRENT.set(CURRENT.get().with(key, value));
+    }
+
+    public static void remove(String key) {
+        CURRENT.set(CURRENT.get().without(key));
+    }
+
+    public static void clear() {
+        CURRENT.set(Snapshot.EMPTY);
+    }
+
+    // Adds key=value until the returned scope is closed, then puts the previous context back:
+    //   try (LogContext.Scope ignored = LogContext.with("requestId", id)) { ... }
+    public static Scope with(String key, String value) {
+        return attach(CURRENT.get().with(key, value));
+    }
+
+    // Makes snapshot the current context until the returned scope is closed
+    public static Scope attach(Snapshot snapshot) {
+        Snapshot previous = CURRENT.get();
+        CURRENT.set(Objects.requireNonNull(snapshot, "snapshot"));
+        return () -> CURRENT.set(previous);
+    }
+
+    // Runs task with the context of the thread that wrapped it, e.g. when submitting to an executor
+    public static Runnable wrap(Runnable task) {
+        Snapshot captured = CURRENT.get();
+        return () -> {
+            try (Scope ignored = attach(captured)) {
+                task.run();
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Snapshot captured = CURRENT.get();
+        return () -> {
+            try (Scope ignored = attach(captured)) {
+                return task.call();
+            }
+        };
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // Immutable map in insertion order. Contexts hold a handful of keys, so parallel arrays with a
+    // linear scan beat hashing, and with()/without() copy them. The " [key=value, ...]" segment that
+    // LogEvent appends is rendered once per snapshot and reused for every line logged with it.
+    public static final class Snapshot extends AbstractMap<String, String> {
+
+        public static final Snapshot EMPTY = new Snapshot(new String[0], new String[0]);
+
+        private final String[] keys;
+        private final String[] values;
+        private String rendered;
+        private int hash;
+        private Set<Map.Entry<String, String>> entries;
+
+        private Snapshot(String[] keys, String[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        public static Snapshot of(Map<String, String> context) {
+            if (context instanceof Snapshot) {
+                return (Snapshot) context;
+            }
+            Snapshot snapshot = EMPTY;
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                snapshot = snapshot.with(entry.getKey(), entry.getValue());
+            }
+            return snapshot;
+        }
+
+        public Snapshot with(String key, String value) {
+            Objects.requireNonNull(key, "key");
+            Objects.requireNonNull(value, "value");
+            int index = indexOf(key);
+            if (index >= 0) {
+                if (values[index].equals(value)) {
+                    return this;
+                }
+                String[] newValues = values.clone();
+                newValues[index] = value;
+                return new Snapshot(keys, newValues);
+            }
+            int size = keys.length;
+            String[] newKeys = new String[size + 1];
+            String[] newValues = new String[size + 1];
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            System.arraycopy(values, 0, newValues, 0, size);
+            newKeys[size] = key;
+            newValues[size] = value;
+            return new Snapshot(newKeys, newValues);
+        }
+
+        public Snapshot without(String key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            int size = keys.length - 1;
+            if (size == 0) {
+                return EMPTY;
+            }
+            String[] newKeys = new String[size];
+            String[] newValues = new String[size];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, size - index);
+            System.arraycopy(values, index + 1, newValues, index, size - index);
+            return new Snapshot(newKeys, newValues);
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // " [key=value, ...]", rendered on first use; racing threads build the same String
+        String rendered() {
+            String text = rendered;
+            if (text == null) {
+                StringBuilder out = new StringBuilder(2 + keys.length * 16);
+                out.append(" [");
+                for (int i = 0; i < keys.length; i++) {
+                    if (i > 0) {
+                        out.append(", ");
+                    }
+                    out.append(keys[i]).append('=').append(values[i]);
+                }
+                text = out.append(']').toString();
+                rendered = text;
+            }
+            return text;
+        }
+
+        // Map's hashCode, computed from the arrays once instead of through entrySet() every time
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                for (int i = 0; i < keys.length; i++) {
+                    h += keys[i].hashCode() ^ values[i].hashCode();
+                }
+                hash = h;
+            }
+            return h;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public String get(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            Set<Map.Entry<String, String>> set = entries;
+            if (set == null) {
+                set = new AbstractSet<>() {
+                    @Override
+                    public Iterator<Map.Entry<String, String>> iterator() {
+                        return new Iterator<>() {
+                            private int next;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < keys.length;
+                            }
+
+                            @Override
+                            public Map.Entry<String, String> next() {
+                                if (next >= keys.length) {
+                                    throw new NoSuchElementException();
+                                }
+                                int i = next++;
+                                return new SimpleImmutableEntry<>(keys[i], values[i]);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return keys.length;
+                    }
+                };
+                entries = set;
+            }
+            return set;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// One log call kept as data: when, at which level, under which category, the message template
+// with its arguments and the key/value context. Text is only produced when a sink asks for it.
+// An event never changes once built: the arguments and the context are copied, since async and
+// binary sinks read them after the log call has returned.
+public final class LogEvent {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final long timestamp;
+    private final int level;
+    private final String category;
+    private final String template;
+    private final Object[] args;
+    private final Map<String, String> context;
+    private String rendered;
+
+    // level 0 means "no level"; category, args and context may be null
+    public LogEvent(long timestamp, int level, String category, String template,
+                    Object[] args, Map<String, String> context) {
+        this(timestamp, level, category, template, args, context, true);
+    }
+
+    private LogEvent(long timestamp, int level, String category, String template,
+                     Object[] args, Map<String, String> context, boolean copy) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.category = category;
+        this.template = Objects.requireNonNull(template, "template");
+        if (args == null || args.length == 0) {
+            this.args = NO_ARGS;
+        } else {
+            this.args = copy ? args.clone() : args;
+        }
+        this.context = copy ? copy(context) : context;
+    }
+
+    // For arguments and context built for this event alone, which it keeps without copying
+    static LogEvent owning(long timestamp, int level, String category, String template,
+                           Object[] args, Map<String, String> context) {
+        return new LogEvent(timestamp, level, category, template, args, context, false);
+    }
+
+    // A Snapshot is immutable and kept as it is; other maps are copied in the same iteration order
+    private static Map<String, String> copy(Map<String, String> context) {
+        if (context == null || context instanceof LogContext.Snapshot) {
+            return context;
+        }
+        if (context instanceof SortedMap) {
+            return new TreeMap<>((SortedMap<String, String>) context);
+        }
+        return new LinkedHashMap<>(context);
+    }
+
+    public static LogEvent of(String message) {
+        return new LogEvent(System.currentTimeMillis(), 0, null, message, null, null);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public Object[] getArgs() {
+        return args.clone();
+    }
+
+    int argCount() {
+        return args.length;
+    }
+
+    Object arg(int index) {
+        return args[index];
+    }
+
+    // Null when the event was logged without context
+    public Map<String, String> getContext() {
+        return context == null ? null : Collections.unmodifiableMap(context);
+    }
+
+    Map<String, String> context() {
+        return context;
+    }
+
+    // "[CATEGORY] message [key=value, ...]", the same text the helpers used to build eagerly
+    public String render() {
+        String text = rendered;
+        if (text == null) {
+            StringBuilder out = new StringBuilder(template.length() + 32);
+            appendTo(out);
+            text = out.toString();
+            rendered = text;
+        }
+        return text;
+    }
+
+    void appendTo(StringBuilder out) {
+        if (category != null) {
+            out.append('[').append(category).append("] ");
+        }
+        appendMessage(out);
+        if (context instanceof LogContext.Snapshot) {
+            out.append(((LogContext.Snapshot) context).rendered());
+        } else if (context != null) {
+            out.append(" [");
+            boolean first = true;
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                if (!first) {
+                    out.append(", ");
+                }
+                out.append(entry.getKey()).append('=').append(entry.getValue());
+                first = false;
+            }
+            out.append(']');
+        }
+    }
+
+    // Just the template with its arguments filled in
+    void appendMessage(StringBuilder out) {
+        if (args.length == 0) {
+            out.append(template);
+        } else {
+            MessageFormatter.format(out, template, args);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LogEvent)) {
+            return false;
+        }
+        LogEvent other = (LogEvent) o;
+        return timestamp == other.timestamp
+                && level == other.level
+                && Objects.equals(category, other.category)
+                && template.equals(other.template)
+                && Arrays.equals(args, other.args)
+                && Objects.equals(context, other.context);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, level, category, template, Arrays.hashCode(args), context);
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -0,0 +1,337 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Sends each line to the sinks of every route whose pattern occurs in it, or to the default sinks
+// when none does. All literal routes are compiled into one Aho-Corasick automaton and all regex
+// routes into one alternation, so a line is scanned once for the literals and once for the
+// regexes however many routes there are:
+//   LogRouter router = LogRouter.builder()
+//           .literal("ERROR", errorFile, console)
+//           .regex("timeout after \\d+ms", jsonLogger)
+//           .otherwise(console)
+//           .build();
+// Patterns match anywhere in the line (find, not matches). A sink reached by several routes gets
+// the line once. Up to 64 distinct sinks. Regex routes can't use numbered backreferences, since
+// wrapping them in the alternation shifts their group numbers.
+//
+// Structured calls (events, the level calls, logAsJson) reach the sinks unchanged, so JSON and
+// binary sinks keep their fields; they are routed on the message alone, without the level prefix
+// or context. Each sink applies its own level, and the router's level is the most verbose of them.
+public class LogRouter implements Logger {
+
+    private static final int MAX_SINKS = 64;
+
+    private final Logger[] sinks;
+    private final AhoCorasick literals;
+    private final long[] literalSinks;
+    private final long allLiteralSinks;
+    private final Pattern combined;
+    private final Pattern[] regexes;
+    private final int[] regexGroups;
+    private final long[] regexSinks;
+    private final long allRegexSinks;
+    private final long defaultSinks;
+    private final ThreadLocal<Matcher[]> matchers;
+    private final ThreadLocal<LiteralCollector> collectors;
+
+    // Route bits of the literal matches found in one line
+    private final class LiteralCollector implements AhoCorasick.MatchHandler {
+        long targets;
+
+        @Override
+        public boolean onMatch(int pattern, int start, int end) {
+            targets |= literalSinks[pattern];
+            // No need to scan further once every literal route's sinks are in
+            return (targets & allLiteralSinks) != allLiteralSinks;
+        }
+    }
+
+    private LogRouter(Builder builder) {
+        this.sinks = builder.sinks.toArray(new Logger[0]);
+        this.defaultSinks = builder.defaultSinks;
+
+        this.literals = builder.literals.isEmpty() ? null : new AhoCorasick(builder.literals, builder.ignoreCase);
+        this.literalSinks = toArray(builder.literalSinks);
+        this.allLiteralSinks = union(literalSinks);
+
+        int regexCount = builder.regexes.size();
+        this.regexes = new Pattern[regexCount];
+        this.regexGroups = new int[regexCount];
+        this.regexSinks = toArray(builder.regexSinks);
+        int flags = builder.ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+        StringBuilder alternation = new StringBuilder();
+        int group = 1;
+        for (int i = 0; i < regexCount; i++) {
+            regexes[i] = Pattern.compile(builder.regexes.get(i), flags);
+            // Each route is wrapped in a group; the route's own groups come right after it
+            regexGroups[i] = group;
+            group += 1 + regexes[i].matcher("").groupCount();
+            if (i > 0) {
+                alternation.append('|');
+            }
+            alternation.append('(').append(builder.regexes.get(i)).append(')');
+        }
+        this.combined = regexCount == 0 ? null : Pattern.compile(alternation.toString(), flags);
+        this.allRegexSinks = union(regexSinks);
+
+        this.matchers = ThreadLocal.withInitial(() -> {
+            Matcher[] perThread = new Matcher[regexCount + 1];
+            if (combined != null) {
+                perThread[0] = combined.matcher("");
+                for (int i = 0; i < regexCount; i++) {
+                    // Lookbehinds and anchors see the whole line, not just the region
+                    perThread[i + 1] = regexes[i].matcher("").useTransparentBounds(true).useAnchoringBounds(false);
+                }
+            }
+            return perThread;
+        });
+        this.collectors = ThreadLocal.withInitial(LiteralCollector::new);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public int getLevel() {
+        int level = 0;
+        for (Logger sink : sinks) {
+            level = Math.max(level, sink.getLevel());
+        }
+        return level;
+    }
+
+    @Override
+    public void log(String message) {
+        long targets = route(message);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0) {
+                sinks[i].log(message);
+            }
+        }
+    }
+
+    @Override
+    public void log(String message, String color) {
+        long targets = route(message);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0) {
+                sinks[i].log(message, color);
+            }
+        }
+    }
+
+    @Override
+    public void log(LogEvent event) {
+        StringBuilder message = MessageFormatter.buffer();
+        event.appendMessage(message);
+        long targets = route(message);
+        int level = event.getLevel();
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            // Events logged without a level go to every matched sink
+            if ((targets & 1) != 0 && (level == 0 || sinks[i].shouldLog(level))) {
+                sinks[i].log(event);
+            }
+        }
+    }
+
+    @Override
+    public void logAtLevel(int level, String message) {
+        long targets = route(message);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0 && sinks[i].shouldLog(level)) {
+                sinks[i].logAtLevel(level, message);
+            }
+        }
+    }
+
+    // The template calls route on the filled-in message, formatted into the per-thread buffer
+    @Override
+    public void logAtLevel(int level, String template, long arg) {
+        StringBuilder message = MessageFormatter.buffer();
+        MessageFormatter.format(message, template, arg);
+        long targets = route(message);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0 && sinks[i].shouldLog(level)) {
+                sinks[i].logAtLevel(level, template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, double arg) {
+        StringBuilder message = MessageFormatter.buffer();
+        MessageFormatter.format(message, template, arg);
+        long targets = route(message);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0 && sinks[i].shouldLog(level)) {
+                sinks[i].logAtLevel(level, template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void logAtLevel(int level, String template, String arg) {
+        StringBuilder message = MessageFormatter.buffer();
+        MessageFormatter.format(message, template, arg);
+        long targets = route(message);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0 && sinks[i].shouldLog(level)) {
+                sinks[i].logAtLevel(level, template, arg);
+            }
+        }
+    }
+
+    // Routed on the JSON text, or on toString() when the data can't be serialized, as logged by default
+    @Override
+    public void logAsJson(Object data) {
+        String text;
+        try {
+            text = LoggerCaches.JSON_WRITER.writeValueAsString(data);
+        } catch (Exception e) {
+            text = data.toString();
+        }
+        long targets = route(text);
+        for (int i = 0; targets != 0; i++, targets >>>= 1) {
+            if ((targets & 1) != 0) {
+                sinks[i].logAsJson(data);
+            }
+        }
+    }
+
+    // Bit i set means sinks[i] gets the line
+    long route(CharSequence line) {
+        long targets = 0;
+        if (literals != null) {
+            LiteralCollector collector = collectors.get();
+            collector.targets = 0;
+            literals.search(line, collector);
+            targets = collector.targets;
+        }
+        if (combined != null) {
+            targets |= matchRegexes(line);
+        }
+        return targets == 0 ? defaultSinks : targets;
+    }
+
+    private long matchRegexes(CharSequence line) {
+        Matcher[] perThread = matchers.get();
+        Matcher matcher = perThread[0].reset(line);
+        long targets = 0;
+        int from = 0;
+        int length = line.length();
+        // Stop as soon as every sink a regex route could add is already targeted
+        while ((targets & allRegexSinks) != allRegexSinks && from <= length && matcher.find(from)) {
+            int start = matcher.start();
+            // The alternation reports the first route matching here; later routes may match at the
+            // same position, so those are checked on their own
+            int first = firstRoute(matcher);
+            targets |= regexSinks[first];
+            for (int i = first + 1; i < regexes.length; i++) {
+                if ((targets & regexSinks[i]) != regexSinks[i]
+                        && perThread[i + 1].reset(line).region(start, length).lookingAt()) {
+                    targets |= regexSinks[i];
+                }
+            }
+            from = start + 1;
+        }
+        return targets;
+    }
+
+    private int firstRoute(Matcher matcher) {
+        for (int i = 0; i < regexGroups.length; i++) {
+            if (matcher.start(regexGroups[i]) >= 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Match without a route group");
+    }
+
+    private static long union(long[] masks) {
+        long union = 0;
+        for (long mask : masks) {
+            union |= mask;
+        }
+        return union;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    public static final class Builder {
+        private final List<Logger> sinks = new ArrayList<>();
+        private final Map<Logger, Integer> sinkIndexes = new IdentityHashMap<>();
+        private final List<String> literals = new ArrayList<>();
+        private final List<Long> literalSinks = new ArrayList<>();
+        private final List<String> regexes = new ArrayList<>();
+        private final List<Long> regexSinks = new ArrayList<>();
+        private long defaultSinks;
+        private boolean ignoreCase;
+
+        private Builder() {
+        }
+
+        // Lines containing text go to targets
+        public Builder literal(String text, Logger... targets) {
+            literals.add(Objects.requireNonNull(text, "text"));
+            literalSinks.add(mask(targets));
+            return this;
+        }
+
+        // Lines in which regex finds a match go to targets
+        public Builder regex(String regex, Logger... targets) {
+            // Fail here rather than when the alternation is compiled
+            Pattern.compile(regex);
+            regexes.add(regex);
+            regexSinks.add(mask(targets));
+            return this;
+        }
+
+        // Lines no route matched go to targets; without this they are dropped
+        public Builder otherwise(Logger... targets) {
+            defaultSinks |= mask(targets);
+            return this;
+        }
+
+        public Builder ignoreCase(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        private long mask(Logger[] targets) {
+            if (targets.length == 0) {
+                throw new IllegalArgumentException("A route needs at least one sink.");
+            }
+            long mask = 0;
+            for (Logger target : targets) {
+                Integer index = sinkIndexes.get(Objects.requireNonNull(target, "sink"));
+                if (index == null) {
+                    if (sinks.size() == MAX_SINKS) {
+                        throw new IllegalArgumentException("At most " + MAX_SINKS + " sinks.");
+                    }
+                    index = sinks.size();
+                    sinks.add(target);
+                    sinkIndexes.put(target, index);
+                }
+                mask |= 1L << index;
+            }
+            return mask;
+        }
+
+        public LogRouter build() {
+            return new LogRouter(this);
+        }
+    }
+}
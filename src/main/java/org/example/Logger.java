@@ -1,19 +1,21 @@
 package org.example;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import j2html.TagCreator;
@@ -22,42 +24,47 @@ import j2html.TagCreator;
 public interface Logger {
     void log(String message);
 
+    // Structured events are rendered to text only here; sinks that keep the structure override this
+    default void log(LogEvent event) {
+        log(event.render());
+    }
+
     // Default methods for logging with various transformations
     default void logWithPrefix(String prefix, String message) {
-        log(prefix + ": " + message);
+        log(LogEvent.owning(System.currentTimeMillis(), 0, null, "{}: {}", new Object[]{prefix, message}, null));
     }
 
     default void logInUppercase(String message) {
         log(message.toUpperCase());
     }
 
+    // Pass a TransformerPipeline to chain several transforms without intermediate Strings
     default void logWithTransformation(Function<String, String> transformer, String message) {
         log(transformer.apply(message));
     }
 
     default void logInLeetSpeak(String message) {
-        String leetMessage = message
-                .replace("o", "0")
-                .replace("s", "5");
-        log(leetMessage);
+        log(LoggerCaches.LEET.apply(message));
     }
 
     default void logInReverse(String message) {
-        String reversed = new StringBuilder(message).reverse().toString();
-        log(reversed);
+        log(LoggerCaches.REVERSE.apply(message));
     }
 
     default void logInColor(String message, String colorCode) {
-        log(colorCode + message + ColorCodes.RESET);
+        logWithStyle(message, Style.of(colorCode));
     }
 
     default void logWithStyle(String message, String colorCode, String backgroundColor, String effect) {
-        log(colorCode + backgroundColor + effect + message + ColorCodes.RESET);
+        logWithStyle(message, Style.of(colorCode, backgroundColor, effect));
+    }
+
+    default void logWithStyle(String message, Style style) {
+        log(style.apply(message));
     }
 
     default void logWithoutVowels(String message) {
-        String messageWithoutVowels = message.replaceAll("[AEIOUaeiou]", "");
-        log(messageWithoutVowels);
+        log(LoggerCaches.WITHOUT_VOWELS.apply(message));
     }
 
     default void logInLanguage(String message, String languageCode) {
@@ -65,32 +72,13 @@ public interface Logger {
         log(translatedMessage);
     }
 
+    // Terms of the shared SentimentLexicon are highlighted (on a terminal) and the message's score appended
     default void logWithSentimentHighlight(String message) {
-        Set<String> positiveWords = new HashSet<>();
-        Set<String> negativeWords = new HashSet<>();
-
-        // Define positive and negative words
-        positiveWords.add("good");
-        positiveWords.add("great");
-        positiveWords.add("happy");
-        positiveWords.add("fantastic");
-
-        negativeWords.add("bad");
-        negativeWords.add("sad");
-        negativeWords.add("hate");
-        negativeWords.add("terrible");
-
-        String lowerCaseMessage = message.toLowerCase();
-        boolean isPositive = positiveWords.stream().anyMatch(lowerCaseMessage::contains);
-        boolean isNegative = negativeWords.stream().anyMatch(lowerCaseMessage::contains);
-
-        if (isPositive) {
-            log(ColorCodes.GREEN + message + ColorCodes.RESET);
-        } else if (isNegative) {
-            log(ColorCodes.RED + message + ColorCodes.RESET);
-        } else {
-            log(message);
-        }
+        StringBuilder highlightedMessage = MessageFormatter.buffer();
+        double score = SentimentLexicon.shared()
+                .highlight(message, Style.of(ColorCodes.GREEN), Style.of(ColorCodes.RED), highlightedMessage);
+        highlightedMessage.append(" [sentiment=").append(Math.round(score * 100) / 100.0).append(']');
+        log(highlightedMessage.toString());
     }
 
 //    default void logWithTimestamp(String message) {
@@ -98,36 +86,33 @@ public interface Logger {
 //        log("[" + timestamp + "] " + message);
 //    }
 
+    // One line per call; to time hot code without logging each call, use Timings
     default void logExecutionTime(Runnable action) {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         action.run();
-        long end = System.currentTimeMillis();
-        log("Execution took " + (end - start) + "ms.");
+        long elapsedNanos = System.nanoTime() - start;
+        log("Execution took " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms.");
     }
 
     private String translate(String message, String languageCode) {
-        Map<String, String> translationMap = new HashMap<>();
-        translationMap.put("Hello", "Hola");
-        translationMap.put("Goodbye", "Adios");
-        translationMap.put("Yes", "Sí");
-        translationMap.put("No", "No");
-        translationMap.put("Thank you", "Gracias");
-        translationMap.put("Hello", "Bonjour");
-        translationMap.put("Thank you", "Merci");
-
-        // Defaulting to English if the translation is unavailable
-        String translatedWord = translationMap.getOrDefault(message, message);
+        String translatedMessage = Translator.shared().translate(message, languageCode);
 
         // Handling unsupported language codes
-        if (!languageCode.equals("es") && !languageCode.equals("fr")) {
+        if (translatedMessage == null) {
             return message + " (Translation unavailable)";
         }
 
-        return translatedWord;
+        return translatedMessage;
     }
 
     static Logger getRedDefaultLogger() {
-        return message -> System.out.println(ColorCodes.RED + message + ColorCodes.RESET);
+        Style red = Style.of(ColorCodes.RED);
+        return message -> System.out.println(red.apply(message));
+    }
+
+    // Console logger that batches lines to stdout from a writer thread instead of println per call
+    static BatchedConsoleLogger getBatchedConsoleLogger() {
+        return BatchedConsoleLogger.stdout();
     }
 
     static Logger getDefaultLogger() {
@@ -135,37 +120,24 @@ public interface Logger {
     }
 
     static Logger getLeetLogger() {
-        return message -> {
-            String leetMessage = message.replace("o", "0").replace("s", "5");
-            System.out.println(leetMessage);
-        };
+        return message -> System.out.println(LoggerCaches.LEET.apply(message));
     }
 
     static Logger getCaesarCipherLogger(int shift) {
-        return message -> {
-            StringBuilder encoded = new StringBuilder();
-            for (char c : message.toCharArray()) {
-                if (Character.isLetter(c)) {
-                    char base = Character.isLowerCase(c) ? 'a' : 'A';
-                    encoded.append((char) ((c - base + shift) % 26 + base));
-                } else {
-                    encoded.append(c);
-                }
-            }
-            System.out.println(encoded.toString());
-        };
+        CaesarCipher cipher = CaesarCipher.of(shift);
+        return message -> System.out.println(cipher.encode(message));
     }
 
     static Logger getStyledLogger(String colorCode, String backgroundColor, String effect) {
+        Style style = Style.of(colorCode, backgroundColor, effect);
         return message -> {
-            System.out.println(colorCode + backgroundColor + effect + message + ColorCodes.RESET);
+            System.out.println(style.apply(message));
         };
     }
 
     default void logAsJson(Object data) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            String json = objectMapper.writeValueAsString(data);
+            String json = LoggerCaches.JSON_WRITER.writeValueAsString(data);
             log(json);
         } catch (Exception e) {
 //            log("Failed to log as JSON: " + e.getMessage());
@@ -180,7 +152,7 @@ public interface Logger {
             return message -> System.out.println("[INFO] " + message);
         } else {
             return message -> {
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                String timestamp = TimestampRenderer.systemDefault().render();
                 System.out.println("[DEV] " + timestamp + " - " + message);
             };
         }
@@ -210,181 +182,139 @@ public interface Logger {
         };
     }
 
-    default void logWithCategory(String message, String category) {
-        log("[" + category.toUpperCase() + "] " + message);
+    // Asynchronous file logger: lines go through a ring buffer to a writer thread that keeps the file open
+    static AsyncFileLogger getAsyncFileLogger(String filePath) {
+        return getAsyncFileLogger(filePath, AsyncFileLogger.DEFAULT_CAPACITY,
+                AsyncFileLogger.WaitStrategy.BLOCKING, AsyncFileLogger.OverflowPolicy.BLOCK);
     }
 
-    default void logAndHighlightPalindromes(String message, String highlightColor) {
-        // Pattern to find words, ignoring punctuation
-        Pattern wordPattern = Pattern.compile("\\b\\w+\\b");
-        Matcher matcher = wordPattern.matcher(message);
-
-        StringBuilder highlightedMessage = new StringBuilder();
-        int lastIndex = 0;
-
-        while (matcher.find()) {
-            String word = matcher.group();
-            String cleanWord = word.replaceAll("[^a-zA-Z]", "").toLowerCase();
-
-            if (isPalindrome(cleanWord)) {
-                // Highlight the palindrome
-                highlightedMessage.append(message, lastIndex, matcher.start())
-                        .append(highlightColor).append(word).append(ColorCodes.RESET);
-                lastIndex = matcher.end();
-            }
+    static AsyncFileLogger getAsyncFileLogger(String filePath, int capacity,
+                                              AsyncFileLogger.WaitStrategy waitStrategy,
+                                              AsyncFileLogger.OverflowPolicy overflowPolicy) {
+        try {
+            return new AsyncFileLogger(filePath, capacity, waitStrategy, overflowPolicy,
+                    AsyncFileLogger.DEFAULT_SAMPLE_RATE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file: " + filePath, e);
         }
+    }
 
-        // Append the rest of the message
-        highlightedMessage.append(message.substring(lastIndex));
+    // Memory-mapped file logger: lines are encoded straight into a mapped region of the file
+    static MappedFileLogger getMappedFileLogger(String filePath) {
+        return getMappedFileLogger(filePath, MappedFileLogger.DEFAULT_REGION_SIZE, 0);
+    }
 
-        // Log the final message
-        log(highlightedMessage.toString());
+    static MappedFileLogger getMappedFileLogger(String filePath, int regionSize, long forceIntervalMillis) {
+        try {
+            return new MappedFileLogger(filePath, regionSize, forceIntervalMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file: " + filePath, e);
+        }
     }
 
-    default void logBase64Encoded(String message) {
-        String encodedMessage = java.util.Base64.getEncoder().encodeToString(message.getBytes());
-        log(encodedMessage);
+    // Rolling file logger: rotates by size and age, gzips and prunes old segments in the background
+    static RollingFileLogger getRollingFileLogger(String filePath, long maxFileBytes, Duration rollInterval,
+                                                  int maxArchives, long maxArchiveBytes) {
+        try {
+            return new RollingFileLogger(filePath, maxFileBytes, rollInterval, maxArchives, maxArchiveBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file: " + filePath, e);
+        }
     }
 
-    default void logBase64Decoded(String message) {
-        byte[] decodedBytes = java.util.Base64.getDecoder().decode(message);
-        String decodedMessage = new String(decodedBytes);
-        log(decodedMessage);
+    // Binary file logger: events are stored as compact records, decode with BinaryEventDecoder
+    static BinaryFileLogger getBinaryFileLogger(String filePath) {
+        try {
+            return new BinaryFileLogger(filePath, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file: " + filePath, e);
+        }
     }
 
-    private boolean isPalindrome(String word) {
-        return word.length() > 1 && word.equals(new StringBuilder(word).reverse().toString());
+    // JSON-lines logger: every event becomes one JSON object per line, streamed through one generator
+    static JsonLinesLogger getJsonLinesLogger(String filePath) {
+        try {
+            return new JsonLinesLogger(new FileOutputStream(filePath, true), true,
+                    JsonLinesLogger.FlushPolicy.EVERY_EVENT, 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file: " + filePath, e);
+        }
     }
 
-    default void logInMorseCode(String message) {
-        Map<Character, String> morseCodeMap = createMorseCodeMap();
-        StringBuilder morseMessage = new StringBuilder();
-
-        message = message.toLowerCase();
-
-        for (char ch : message.toCharArray()) {
-            if (ch == ' ') {
-                morseMessage.append("/ ");
-            } else if (morseCodeMap.containsKey(ch)) {
-                morseMessage.append(morseCodeMap.get(ch)).append(" ");
-            } else {
-                System.out.println("Character '" + ch + "' could not be translated.");
-            }
+    static JsonLinesLogger getJsonLinesLogger(OutputStream out, JsonLinesLogger.FlushPolicy flushPolicy, int batchSize) {
+        try {
+            return new JsonLinesLogger(out, false, flushPolicy, batchSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create JSON generator", e);
         }
-        log(morseMessage.toString().trim());
-    }
-
-    private Map<Character, String> createMorseCodeMap() {
-        Map<Character, String> morseCodeMap = new HashMap<>();
-        morseCodeMap.put('a', ".-");
-        morseCodeMap.put('b', "-...");
-        morseCodeMap.put('c', "-.-.");
-        morseCodeMap.put('d', "-..");
-        morseCodeMap.put('e', ".");
-        morseCodeMap.put('f', "..-.");
-        morseCodeMap.put('g', "--.");
-        morseCodeMap.put('h', "....");
-        morseCodeMap.put('i', "..");
-        morseCodeMap.put('j', ".---");
-        morseCodeMap.put('k', "-.-");
-        morseCodeMap.put('l', ".-..");
-        morseCodeMap.put('m', "--");
-        morseCodeMap.put('n', "-.");
-        morseCodeMap.put('o', "---");
-        morseCodeMap.put('p', ".--.");
-        morseCodeMap.put('q', "--.-");
-        morseCodeMap.put('r', ".-.");
-        morseCodeMap.put('s', "...");
-        morseCodeMap.put('t', "-");
-        morseCodeMap.put('u', "..-");
-        morseCodeMap.put('v', "...-");
-        morseCodeMap.put('w', ".--");
-        morseCodeMap.put('x', "-..-");
-        morseCodeMap.put('y', "-.--");
-        morseCodeMap.put('z', "--..");
-        morseCodeMap.put('0', "-----");
-        morseCodeMap.put('1', ".----");
-        morseCodeMap.put('2', "..---");
-        morseCodeMap.put('3', "...--");
-        morseCodeMap.put('4', "....-");
-        morseCodeMap.put('5', ".....");
-        morseCodeMap.put('6', "-....");
-        morseCodeMap.put('7', "--...");
-        morseCodeMap.put('8', "---..");
-        morseCodeMap.put('9', "----.");
-        morseCodeMap.put('.', ".-.-.-");
-        morseCodeMap.put(',', "--..--");
-        morseCodeMap.put('?', "..--..");
-        morseCodeMap.put('!', "-.-.--");
-        return morseCodeMap;
     }
 
-    default void logInPigLatin(String message) {
-        StringBuilder pigLatinMessage = new StringBuilder();
+    // Counts and times every call to delegate in LoggerMetrics.global() under name
+    static InstrumentedLogger getInstrumentedLogger(String name, Logger delegate) {
+        return new InstrumentedLogger(name, delegate);
+    }
 
-        // Split the message while keeping spaces intact
-        String[] words = message.split("(?<=\\s)|(?=\\s)"); // Regex to preserve spaces
+    // Filtering logger: drops repeats within a window and rate-limits per message before delegate sees them
+    static FilteringLogger getFilteringLogger(Logger delegate) {
+        return new FilteringLogger(delegate);
+    }
 
-        for (String word : words) {
-            if (word.matches("[a-zA-Z]+")) { // Check if the token is a word
-                pigLatinMessage.append(convertToPigLatin(word));
-            } else {
-                pigLatinMessage.append(word); // Preserve non-word characters
-            }
-        }
+    default void logWithCategory(String message, String category) {
+        log(new LogEvent(System.currentTimeMillis(), 0, category.toUpperCase(), message, null, null));
+    }
 
-        log(pigLatinMessage.toString().trim()); // Log the transformed message
+    // The highlight goes through Style, so it is left out when stdout isn't a terminal
+    default void logAndHighlightPalindromes(String message, String highlightColor) {
+        Style highlight = Style.of(highlightColor);
+        StringBuilder highlightedMessage = MessageFormatter.buffer();
+        PalindromeEngine.highlightWords(message, highlight.prefix(), highlight.suffix(), highlightedMessage);
+        log(highlightedMessage.toString());
     }
 
-    private String convertToPigLatin(String word) {
-        char firstChar = word.charAt(0);
-        String lowerCaseWord = word.toLowerCase();
+    // Highlights the longest palindromic substrings of the whole message, not just whole words
+    default void logLongestPalindromes(String message, String highlightColor) {
+        Style highlight = Style.of(highlightColor);
+        StringBuilder highlightedMessage = MessageFormatter.buffer();
+        PalindromeEngine.highlightLongest(message, highlight.prefix(), highlight.suffix(), highlightedMessage);
+        log(highlightedMessage.toString());
+    }
 
-        if (isVowel(firstChar)) {
-            return word + "way"; // Append "way" for words starting with a vowel
-        } else {
-            // Handle consonants
-            int index = 0;
-            while (index < lowerCaseWord.length() && !isVowel(lowerCaseWord.charAt(index))) {
-                index++;
-            }
+    default void logBase64Encoded(String message) {
+        String encodedMessage = java.util.Base64.getEncoder().encodeToString(message.getBytes());
+        log(encodedMessage);
+    }
 
-            String consonantCluster = word.substring(0, index);
-            String pigLatinWord = word.substring(index) + consonantCluster + "ay";
-            // Preserve the capitalization of the first letter
-            if (Character.isUpperCase(firstChar)) {
-                pigLatinWord = Character.toUpperCase(pigLatinWord.charAt(0)) + pigLatinWord.substring(1).toLowerCase();
-            }
-            return pigLatinWord;
-        }
+    default void logBase64Decoded(String message) {
+        byte[] decodedBytes = java.util.Base64.getDecoder().decode(message);
+        String decodedMessage = new String(decodedBytes);
+        log(decodedMessage);
+    }
+
+    default void logInMorseCode(String message) {
+        StringBuilder morseMessage = MessageFormatter.buffer();
+        MorseCode.encode(message, morseMessage,
+                c -> System.out.println("Character '" + Character.toLowerCase((char) c) + "' could not be translated."));
+        log(morseMessage.toString());
     }
 
-    private boolean isVowel(char c) {
-        return "aeiouAEIOU".indexOf(c) != -1;
+    default void logInPigLatin(String message) {
+        StringBuilder pigLatinMessage = MessageFormatter.buffer();
+        WordTransforms.pigLatin(message, pigLatinMessage);
+        log(pigLatinMessage.toString());
     }
 
     default void logWithRot13(String message) {
-        StringBuilder rot13Message = new StringBuilder();
-        for (char ch : message.toCharArray()) {
-            if (Character.isLetter(ch)) {
-                char base = Character.isLowerCase(ch) ? 'a' : 'A';
-                ch = (char) ((ch - base + 13) % 26 + base);
-            }
-            rot13Message.append(ch);
-        }
-        log(rot13Message.toString());
+        log(CaesarCipher.ROT13.encode(message));
     }
 
     default void logPalindromeWords(String message) {
-        String[] words = message.split("\\s+");
-        String palindromes = Arrays.stream(words)
-                .filter(word -> isPalindrome(word))
-                .collect(Collectors.joining(" "));
-        log(palindromes);
+        StringBuilder palindromes = MessageFormatter.buffer();
+        WordTransforms.palindromeWords(message, palindromes);
+        log(palindromes.toString());
     }
 
     default void logWordFrequency(String message) {
-        String[] words = message.split("\\s+");
+        String[] words = LoggerCaches.WHITESPACE.split(message);
         Map<String, Long> frequencyMap = Arrays.stream(words)
                 .collect(Collectors.groupingBy(String::toLowerCase, Collectors.counting()));
         String result = frequencyMap.entrySet().stream()
@@ -394,117 +324,46 @@ public interface Logger {
     }
 
     default void logWithLengthScrambledWords(String message) {
-        String[] words = message.split("\\s+");
-        Map<Integer, List<String>> lengthGroups = new TreeMap<>(); // Use TreeMap to maintain natural order by length
-
-        // Group words by their lengths
-        for (String word : words) {
-            int length = word.length();
-            lengthGroups.computeIfAbsent(length, k -> new ArrayList<>()).add(word);
-        }
-
-        StringBuilder scrambledMessage = new StringBuilder();
-        for (List<String> group : lengthGroups.values()) {
-            Collections.shuffle(group); // Shuffle the order of words within the group
-            scrambledMessage.append(String.join(" ", group)).append(" ");
-        }
-
-        log(scrambledMessage.toString().trim());
+        StringBuilder scrambledMessage = MessageFormatter.buffer();
+        WordTransforms.lengthScramble(message, ThreadLocalRandom.current(), scrambledMessage);
+        log(scrambledMessage.toString());
     }
 
     default void logWithConditionalReversedWords(String message, int lengthThreshold) {
-        String[] words = message.split("\\s+");
-        StringBuilder result = new StringBuilder();
-
-        for (String word : words) {
-            if (word.length() > lengthThreshold) {
-                result.append(new StringBuilder(word).reverse().toString()).append(" ");
-            } else {
-                result.append(word).append(" ");
-            }
-        }
-
-        log(result.toString().trim());
+        StringBuilder result = MessageFormatter.buffer();
+        WordTransforms.reverseLongWords(message, lengthThreshold, result);
+        log(result.toString());
     }
 
     default void logWithCharacterScrambledWords(String message) {
-        String[] words = message.split("\\s+");
-
-        StringBuilder result = new StringBuilder();
-        for (String word : words) {
-            if (word.length() > 2) {
-                result.append(scrambleWord(word)).append(" ");
-            } else {
-                result.append(word).append(" ");
-            }
-        }
-
-        System.out.println(result.toString().trim());
-    }
-
-    private String scrambleWord(String word) {
-        char[] chars = word.toCharArray();
-        List<Character> middleChars = new ArrayList<>();
-        for (int i = 1; i < chars.length - 1; i++) {
-            middleChars.add(chars[i]);
-        }
-        Collections.shuffle(middleChars);
-        for (int i = 1; i < chars.length - 1; i++) {
-            chars[i] = middleChars.get(i - 1);
-        }
-        return new String(chars);
+        StringBuilder result = MessageFormatter.buffer();
+        WordTransforms.scrambleMiddles(message, ThreadLocalRandom.current(), result);
+        System.out.println(result.toString());
     }
 
     default void logWithSynonyms(String message) {
-        // Assuming we have a pre-defined map of synonyms
-        Map<String, String> synonyms = Map.of("happy", "content", "sad", "unhappy");
-
-        String[] words = message.split("\\s+");
-        StringBuilder result = new StringBuilder();
-
-        for (String word : words) {
-            result.append(synonyms.getOrDefault(word, word)).append(" ");
-        }
-
-        System.out.println(result.toString().trim());
+        StringBuilder result = MessageFormatter.buffer();
+        WordTransforms.synonyms(message, result);
+        System.out.println(result.toString());
     }
 
+    // Learns the message into the shared MarkovModel, then walks it from a random word of the message
     default void logWithMarkovChainTransformation(String message) {
-        if (message == null || message.split("\\s+").length < 2) {
+        String[] words = message == null ? null : LoggerCaches.WHITESPACE.split(message);
+        if (words == null || words.length < 2) {
             System.out.println(message);  // If less than two words, print as is
             return;
         }
 
-        String[] words = message.split("\\s+");
-        Map<String, List<String>> markovChain = new HashMap<>();
-        Random random = new Random();
-
-        for (int i = 0; i < words.length - 1; i++) {
-            String currentWord = words[i];
-            String nextWord = words[i + 1];
-            markovChain.computeIfAbsent(currentWord, k -> new ArrayList<>()).add(nextWord);
-        }
-        markovChain.computeIfAbsent(words[words.length - 1], k -> new ArrayList<>()).add(words[0]);
-
-        String currentWord = words[random.nextInt(words.length)];
-        StringBuilder result = new StringBuilder(currentWord).append(" ");
-
-        for (int i = 1; i < words.length; i++) {
-            List<String> nextWords = markovChain.get(currentWord);
-            if (nextWords != null && !nextWords.isEmpty()) {
-                currentWord = nextWords.get(random.nextInt(nextWords.size()));
-                result.append(currentWord).append(" ");
-            } else {
-                break;
-            }
-        }
-
-        System.out.println(result.toString().trim());
+        MarkovModel model = MarkovModel.shared();
+        model.learn(words);
+        String start = words[ThreadLocalRandom.current().nextInt(words.length)];
+        System.out.println(model.generate(start, words.length));
     }
 
     default void logIf(String message, Predicate<String> condition) {
         if (condition.test(message)) {
-            System.out.println(message);
+            log(message);
         }
     }
 
@@ -514,94 +373,245 @@ public interface Logger {
     int DEBUG = 4;
     int TRACE = 5;
 
-    // Log level for the current logger
+    // Default log level for loggers that don't carry their own (plain lambdas)
     int logLevel = INFO;
 
-    // Factory method to create a level-based logger
-    static Logger getLevelBasedLogger(int logLevel) {
-        return new Logger() {
-            private final int level = logLevel;
-
-            @Override
-            public void log(String message) {
+    // Factory method to create a level-based logger whose level can be changed at runtime
+    static LevelBasedLogger getLevelBasedLogger(int logLevel) {
+        return new LevelBasedLogger(logLevel);
+    }
 
-            }
+    // Named logger from the hierarchical registry; "a.b.c" inherits the level configured for "a.b"
+    static LevelBasedLogger getLogger(String name) {
+        return LoggerRegistry.getLogger(name);
+    }
 
-            @Override
-            public boolean shouldLog(int messageLogLevel) {
-                return messageLogLevel <= this.level;
-            }
-        };
+    // Current level of this logger
+    default int getLevel() {
+        return logLevel;
     }
 
     // Method to check if the message should be logged based on log level
     default boolean shouldLog(int messageLogLevel) {
-        return messageLogLevel <= logLevel;
+        return messageLogLevel <= getLevel();
     }
 
     // Log level specific methods
     default void error(String message) {
         if (shouldLog(ERROR)) {
-            log("ERROR: " + message, "\u001B[31m");
+            logAtLevel(ERROR, message);
         }
     }
 
     default void warn(String message) {
         if (shouldLog(WARNING)) {
-            log("WARNING: " + message, "\u001B[33m");
+            logAtLevel(WARNING, message);
         }
     }
 
     default void info(String message) {
         if (shouldLog(INFO)) {
-            log("INFO: " + message, "\u001B[32m");
+            logAtLevel(INFO, message);
         }
     }
 
     default void debug(String message) {
         if (shouldLog(DEBUG)) {
-            log("DEBUG: " + message, "\u001B[34m");
+            logAtLevel(DEBUG, message);
         }
     }
 
     default void trace(String message) {
         if (shouldLog(TRACE)) {
-            log("TRACE: " + message, "\u001B[35m");
+            logAtLevel(TRACE, message);
         }
     }
 
+    // Lazy and parameterized variants: nothing is built when the level is disabled,
+    // and primitive arguments are appended without boxing
+    default void error(Supplier<String> message) {
+        if (shouldLog(ERROR)) {
+            logAtLevel(ERROR, message.get());
+        }
+    }
+
+    default void error(String template, long arg) {
+        if (shouldLog(ERROR)) {
+            logAtLevel(ERROR, template, arg);
+        }
+    }
+
+    default void error(String template, double arg) {
+        if (shouldLog(ERROR)) {
+            logAtLevel(ERROR, template, arg);
+        }
+    }
+
+    default void error(String template, Object arg) {
+        if (shouldLog(ERROR)) {
+            logAtLevel(ERROR, template, String.valueOf(arg));
+        }
+    }
+
+    default void warn(Supplier<String> message) {
+        if (shouldLog(WARNING)) {
+            logAtLevel(WARNING, message.get());
+        }
+    }
+
+    default void warn(String template, long arg) {
+        if (shouldLog(WARNING)) {
+            logAtLevel(WARNING, template, arg);
+        }
+    }
+
+    default void warn(String template, double arg) {
+        if (shouldLog(WARNING)) {
+            logAtLevel(WARNING, template, arg);
+        }
+    }
+
+    default void warn(String template, Object arg) {
+        if (shouldLog(WARNING)) {
+            logAtLevel(WARNING, template, String.valueOf(arg));
+        }
+    }
+
+    default void info(Supplier<String> message) {
+        if (shouldLog(INFO)) {
+            logAtLevel(INFO, message.get());
+        }
+    }
+
+    default void info(String template, long arg) {
+        if (shouldLog(INFO)) {
+            logAtLevel(INFO, template, arg);
+        }
+    }
+
+    default void info(String template, double arg) {
+        if (shouldLog(INFO)) {
+            logAtLevel(INFO, template, arg);
+        }
+    }
+
+    default void info(String template, Object arg) {
+        if (shouldLog(INFO)) {
+            logAtLevel(INFO, template, String.valueOf(arg));
+        }
+    }
+
+    default void debug(Supplier<String> message) {
+        if (shouldLog(DEBUG)) {
+            logAtLevel(DEBUG, message.get());
+        }
+    }
+
+    default void debug(String template, long arg) {
+        if (shouldLog(DEBUG)) {
+            logAtLevel(DEBUG, template, arg);
+        }
+    }
+
+    default void debug(String template, double arg) {
+        if (shouldLog(DEBUG)) {
+            logAtLevel(DEBUG, template, arg);
+        }
+    }
+
+    default void debug(String template, Object arg) {
+        if (shouldLog(DEBUG)) {
+            logAtLevel(DEBUG, template, String.valueOf(arg));
+        }
+    }
+
+    default void trace(Supplier<String> message) {
+        if (shouldLog(TRACE)) {
+            logAtLevel(TRACE, message.get());
+        }
+    }
+
+    default void trace(String template, long arg) {
+        if (shouldLog(TRACE)) {
+            logAtLevel(TRACE, template, arg);
+        }
+    }
+
+    default void trace(String template, double arg) {
+        if (shouldLog(TRACE)) {
+            logAtLevel(TRACE, template, arg);
+        }
+    }
+
+    default void trace(String template, Object arg) {
+        if (shouldLog(TRACE)) {
+            logAtLevel(TRACE, template, String.valueOf(arg));
+        }
+    }
+
+    // Writes "LEVEL: message" in the level's color; the line is assembled in a reused per-thread buffer
+    default void logAtLevel(int level, String message) {
+        StringBuilder line = MessageFormatter.buffer();
+        line.append(Levels.name(level)).append(": ").append(message);
+        log(line.toString(), Levels.color(level));
+    }
+
+    default void logAtLevel(int level, String template, long arg) {
+        StringBuilder line = MessageFormatter.buffer();
+        line.append(Levels.name(level)).append(": ");
+        MessageFormatter.format(line, template, arg);
+        log(line.toString(), Levels.color(level));
+    }
+
+    default void logAtLevel(int level, String template, double arg) {
+        StringBuilder line = MessageFormatter.buffer();
+        line.append(Levels.name(level)).append(": ");
+        MessageFormatter.format(line, template, arg);
+        log(line.toString(), Levels.color(level));
+    }
+
+    default void logAtLevel(int level, String template, String arg) {
+        StringBuilder line = MessageFormatter.buffer();
+        line.append(Levels.name(level)).append(": ");
+        MessageFormatter.format(line, template, arg);
+        log(line.toString(), Levels.color(level));
+    }
+
     // Helper method to log messages with color coding
     default void log(String message, String color) {
-        System.out.println(color + message + "\u001B[0m");
+        System.out.println(Style.of(color).apply(message));
     }
 
     // Timestamped logging
     default void logWithTimestamp(String message) {
-        String timestamp = ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        log("[" + timestamp + "] " + message, "\u001B[37m");
+        StringBuilder line = MessageFormatter.buffer().append('[');
+        TimestampRenderer.systemDefault().render(line);
+        line.append("] ").append(message);
+        log(line.toString(), "\u001B[37m");
     }
 
     // Elapsed time logging
     default void logWithElapsedTime(String message, Runnable operation) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         operation.run();
-        long elapsedTime = System.currentTimeMillis() - startTime;
+        long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
         log(message + " [Elapsed time: " + (elapsedTime / 1000.0) + " seconds]", "\u001B[37m");
     }
 
     // Contextual logging
     default void logWithContext(String message, Map<String, String> context) {
-        StringBuilder contextInfo = new StringBuilder();
-        context.forEach((key, value) -> contextInfo.append(key).append("=").append(value).append(", "));
-        if (contextInfo.length() > 0) {
-            contextInfo.setLength(contextInfo.length() - 2); // Remove last comma and space
-        }
-        log(message + " [" + contextInfo + "]", "\u001B[37m");
+        log(new LogEvent(System.currentTimeMillis(), 0, null, message, null, context));
+    }
+
+    // Uses the thread's LogContext; the snapshot is shared, not copied, and renders once
+    default void logWithContext(String message) {
+        LogContext.Snapshot context = LogContext.current();
+        log(new LogEvent(System.currentTimeMillis(), 0, null, message, null, context.isEmpty() ? null : context));
     }
 
     // Pattern-based logging
     default void logIfMatchesPattern(String message, String pattern) {
-        if (message.matches(pattern)) {
+        if (LoggerCaches.pattern(pattern).matcher(message).matches()) {
             log(message, "\u001B[37m");
         }
     }
@@ -622,8 +632,10 @@ public interface Logger {
 
     // Time-zone-based logging
     default void logWithTimeZone(String message, ZoneId timeZone) {
-        String timestamp = ZonedDateTime.now(timeZone).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z"));
-        log("[" + timestamp + "] " + message, "\u001B[37m");
+        StringBuilder line = MessageFormatter.buffer().append('[');
+        TimestampRenderer.forZone(timeZone).render(line);
+        line.append("] ").append(message);
+        log(line.toString(), "\u001B[37m");
     }
 
 }
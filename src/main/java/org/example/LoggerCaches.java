@@ -0,0 +1,52 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Heavy objects the default methods used to rebuild on every call. Everything here is
+// immutable or thread-safe, so it is created once and shared by all loggers and threads.
+final class LoggerCaches {
+
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+    // Caller-supplied regexes are cached up to this many, after which they are compiled per call
+    private static final int MAX_CACHED_PATTERNS = 256;
+
+    // Configured once and never changed afterwards, which is what makes sharing it safe
+    static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    // ObjectWriter is immutable and thread-safe, unlike reconfiguring an ObjectMapper per call
+    static final ObjectWriter JSON_WRITER = JSON_MAPPER.writer();
+
+    static final DateTimeFormatter TIMESTAMP = formatter("yyyy-MM-dd HH:mm:ss");
+
+    static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    static final TransformerPipeline LEET = TransformerPipeline.builder().leet().build();
+    static final TransformerPipeline WITHOUT_VOWELS = TransformerPipeline.builder().removeVowels().build();
+    static final TransformerPipeline REVERSE = TransformerPipeline.builder().reverse().build();
+
+    private LoggerCaches() {
+    }
+
+    // One shared formatter per pattern string
+    static DateTimeFormatter formatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
+
+    static Pattern pattern(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern != null) {
+            return pattern;
+        }
+        pattern = Pattern.compile(regex);
+        if (PATTERNS.size() < MAX_CACHED_PATTERNS) {
+            PATTERNS.putIfAbsent(regex, pattern);
+        }
+        return pattern;
+    }
+}
@@ -0,0 +1,463 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Metrics about the logger itself, per sink: messages by level and the time spent in the sink's
+// log calls, plus what the sink counts on its own (bytes written, dropped messages and queue depth
+// for an AsyncFileLogger; suppressed and rate-limited messages for a FilteringLogger). A sink is
+// measured by wrapping it:
+//   Logger file = Logger.getInstrumentedLogger("file", Logger.getAsyncFileLogger("app.log"));
+// Counters are LongAdders and latencies go to a striped LatencyHistogram, so recording takes no
+// lock; a call costs two nanoTime reads and two increments. Read the numbers with snapshot(), on
+// a schedule with scheduleSnapshots() or startReporting(), or over JMX after registerMBean().
+public final class LoggerMetrics implements LoggerMetricsMXBean, AutoCloseable {
+
+    public static final String MBEAN_NAME = "org.example:type=LoggerMetrics";
+
+    private static final LoggerMetrics GLOBAL = new LoggerMetrics();
+    // JMX reads attributes one at a time; those read within this long of each other share a snapshot
+    private static final long MBEAN_SNAPSHOT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Sink> sinks = new ConcurrentHashMap<>();
+    private ScheduledExecutorService reporter;
+    private volatile MBeanView mbeanView;
+
+    // The snapshot the MXBean attributes are read from, with its sinks' latencies merged once
+    private static final class MBeanView {
+        final Snapshot snapshot;
+        final LatencyHistogram.Snapshot latency;
+        final long takenNanos;
+
+        MBeanView(Snapshot snapshot, long takenNanos) {
+            this.snapshot = snapshot;
+            this.latency = snapshot.getLatency();
+            this.takenNanos = takenNanos;
+        }
+    }
+
+    // One instrumented sink's counters; the logger itself is kept for the counts it reports
+    static final class Sink {
+        final String name;
+        final Logger target;
+        // Index 0 counts messages logged without a level
+        final LongAdder[] levels = new LongAdder[Logger.TRACE + 1];
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Sink(String name, Logger target) {
+            this.name = name;
+            this.target = target;
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = new LongAdder();
+            }
+        }
+
+        void record(int level, long nanos) {
+            levels[level > 0 && level < levels.length ? level : 0].increment();
+            latency.record(nanos);
+        }
+
+        SinkSnapshot snapshot() {
+            long[] levelCounts = new long[levels.length];
+            for (int i = 0; i < levels.length; i++) {
+                levelCounts[i] = levels[i].sum();
+            }
+            long bytesWritten = 0;
+            long dropped = 0;
+            long queueDepth = 0;
+            long suppressed = 0;
+            long rateLimited = 0;
+            if (target instanceof AsyncFileLogger) {
+                AsyncFileLogger asyncLogger = (AsyncFileLogger) target;
+                bytesWritten = asyncLogger.getBytesWritten();
+                dropped = asyncLogger.getDroppedCount();
+                queueDepth = asyncLogger.getQueueDepth();
+            } else if (target instanceof FilteringLogger) {
+                FilteringLogger filteringLogger = (FilteringLogger) target;
+                suppressed = filteringLogger.getSuppressedCount();
+                rateLimited = filteringLogger.getRateLimitedCount();
+            }
+            return new SinkSnapshot(name, levelCounts, bytesWritten, dropped, queueDepth, suppressed,
+                    rateLimited, latency.snapshot());
+        }
+
+        void reset() {
+            for (LongAdder level : levels) {
+                level.reset();
+            }
+            latency.reset();
+        }
+    }
+
+    public static LoggerMetrics global() {
+        return GLOBAL;
+    }
+
+    // Instrumented sinks with the same name share their counters
+    Sink sink(String name, Logger target) {
+        return sinks.computeIfAbsent(name, key -> new Sink(key, target));
+    }
+
+    public void remove(String sinkName) {
+        sinks.remove(sinkName);
+    }
+
+    // Sinks in name order
+    public Snapshot snapshot() {
+        List<SinkSnapshot> sinkSnapshots = new ArrayList<>();
+        for (Sink sink : sinks.values()) {
+            sinkSnapshots.add(sink.snapshot());
+        }
+        sinkSnapshots.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return new Snapshot(System.currentTimeMillis(), sinkSnapshots);
+    }
+
+    // Hands a snapshot to listener every periodMillis, on a daemon thread
+    public synchronized void scheduleSnapshots(Consumer<Snapshot> listener, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Report period must be positive.");
+        }
+        if (reporter != null) {
+            throw new IllegalStateException("Reporting already started.");
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "logger-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            Snapshot snapshot = snapshot();
+            // The reporter's snapshot serves JMX reads too, until it goes stale
+            mbeanView = new MBeanView(snapshot, System.nanoTime());
+            listener.accept(snapshot);
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Logs one line per sink to target every periodMillis; target is best left uninstrumented
+    public void startReporting(Logger target, long periodMillis) {
+        scheduleSnapshots(snapshot -> {
+            for (SinkSnapshot sink : snapshot.getSinks()) {
+                target.log("Logger metrics: " + sink);
+            }
+        }, periodMillis);
+    }
+
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(MBEAN_NAME));
+        } catch (JMException e) {
+            System.err.println("Failed to register logger metrics MBean: " + e.getMessage());
+        }
+    }
+
+    public void unregisterMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(MBEAN_NAME));
+        } catch (JMException e) {
+            System.err.println("Failed to unregister logger metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // Clears levels and latencies; counts kept by the sinks themselves are not reset
+    @Override
+    public void reset() {
+        for (Sink sink : sinks.values()) {
+            sink.reset();
+        }
+        mbeanView = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdown();
+            reporter = null;
+        }
+    }
+
+    // Taken at most once per MBEAN_SNAPSHOT_NANOS, so a console refreshing every attribute merges
+    // the histograms once and shows numbers from the same moment; two threads finding it stale at
+    // once may both take one, which only costs the extra merge
+    private MBeanView mbeanView() {
+        MBeanView view = mbeanView;
+        long now = System.nanoTime();
+        if (view == null || now - view.takenNanos >= MBEAN_SNAPSHOT_NANOS) {
+            view = new MBeanView(snapshot(), now);
+            mbeanView = view;
+        }
+        return view;
+    }
+
+    @Override
+    public String[] getSinkNames() {
+        return mbeanView().snapshot.getSinks().stream().map(SinkSnapshot::getName).toArray(String[]::new);
+    }
+
+    @Override
+    public long getMessageCount() {
+        return mbeanView().snapshot.getMessageCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return mbeanView().snapshot.getCount(Logger.ERROR);
+    }
+
+    @Override
+    public long getWarningCount() {
+        return mbeanView().snapshot.getCount(Logger.WARNING);
+    }
+
+    @Override
+    public long getInfoCount() {
+        return mbeanView().snapshot.getCount(Logger.INFO);
+    }
+
+    @Override
+    public long getDebugCount() {
+        return mbeanView().snapshot.getCount(Logger.DEBUG);
+    }
+
+    @Override
+    public long getTraceCount() {
+        return mbeanView().snapshot.getCount(Logger.TRACE);
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return mbeanView().snapshot.getBytesWritten();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return mbeanView().snapshot.getDroppedCount();
+    }
+
+    @Override
+    public long getSuppressedCount() {
+        return mbeanView().snapshot.getSuppressedCount();
+    }
+
+    @Override
+    public long getRateLimitedCount() {
+        return mbeanView().snapshot.getRateLimitedCount();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return mbeanView().snapshot.getQueueDepth();
+    }
+
+    @Override
+    public double getLatencyMeanNanos() {
+        return mbeanView().latency.getMeanNanos();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return mbeanView().latency.percentileNanos(0.5);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return mbeanView().latency.percentileNanos(0.99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return mbeanView().latency.percentileNanos(0.999);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return mbeanView().latency.getMaxNanos();
+    }
+
+    // Every sink's numbers at one moment, and their totals
+    public static final class Snapshot {
+        private final long timestampMillis;
+        private final List<SinkSnapshot> sinks;
+
+        private Snapshot(long timestampMillis, List<SinkSnapshot> sinks) {
+            this.timestampMillis = timestampMillis;
+            this.sinks = Collections.unmodifiableList(sinks);
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public List<SinkSnapshot> getSinks() {
+            return sinks;
+        }
+
+        public long getMessageCount() {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getMessageCount();
+            }
+            return total;
+        }
+
+        public long getCount(int level) {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getCount(level);
+            }
+            return total;
+        }
+
+        public long getBytesWritten() {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getBytesWritten();
+            }
+            return total;
+        }
+
+        public long getDroppedCount() {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getDroppedCount();
+            }
+            return total;
+        }
+
+        public long getSuppressedCount() {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getSuppressedCount();
+            }
+            return total;
+        }
+
+        public long getRateLimitedCount() {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getRateLimitedCount();
+            }
+            return total;
+        }
+
+        public long getQueueDepth() {
+            long total = 0;
+            for (SinkSnapshot sink : sinks) {
+                total += sink.getQueueDepth();
+            }
+            return total;
+        }
+
+        // All sinks' latencies together
+        public LatencyHistogram.Snapshot getLatency() {
+            LatencyHistogram.Snapshot total = LatencyHistogram.emptySnapshot();
+            for (SinkSnapshot sink : sinks) {
+                total = total.merge(sink.getLatency());
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder("Logger metrics at ").append(timestampMillis).append(':');
+            for (SinkSnapshot sink : sinks) {
+                out.append(System.lineSeparator()).append("  ").append(sink);
+            }
+            return out.toString();
+        }
+    }
+
+    public static final class SinkSnapshot {
+        private final String name;
+        private final long[] levelCounts;
+        private final long bytesWritten;
+        private final long dropped;
+        private final long queueDepth;
+        private final long suppressed;
+        private final long rateLimited;
+        private final LatencyHistogram.Snapshot latency;
+
+        private SinkSnapshot(String name, long[] levelCounts, long bytesWritten, long dropped, long queueDepth,
+                             long suppressed, long rateLimited, LatencyHistogram.Snapshot latency) {
+            this.name = name;
+            this.levelCounts = levelCounts;
+            this.bytesWritten = bytesWritten;
+            this.dropped = dropped;
+            this.queueDepth = queueDepth;
+            this.suppressed = suppressed;
+            this.rateLimited = rateLimited;
+            this.latency = latency;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getMessageCount() {
+            long total = 0;
+            for (long count : levelCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        // Messages logged at level; 0 for those logged without one
+        public long getCount(int level) {
+            return level >= 0 && level < levelCounts.length ? levelCounts[level] : 0;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getDroppedCount() {
+            return dropped;
+        }
+
+        public long getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getSuppressedCount() {
+            return suppressed;
+        }
+
+        public long getRateLimitedCount() {
+            return rateLimited;
+        }
+
+        // Time spent inside the sink's log calls
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        // e.g. "file messages=120 error=2 warning=5 info=113 bytes=6400 dropped=0 queue=0 latency[count=120 ...]"
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(name).append(" messages=").append(getMessageCount());
+            for (int level = Logger.ERROR; level <= Logger.TRACE; level++) {
+                if (levelCounts[level] > 0) {
+                    out.append(' ').append(Levels.name(level).toLowerCase()).append('=').append(levelCounts[level]);
+                }
+            }
+            if (bytesWritten > 0 || dropped > 0 || queueDepth > 0) {
+                out.append(" bytes=").append(bytesWritten).append(" dropped=").append(dropped)
+                        .append(" queue=").append(queueDepth);
+            }
+            if (suppressed > 0 || rateLimited > 0) {
+                out.append(" suppressed=").append(suppressed).append(" rateLimited=").append(rateLimited);
+            }
+            return out.append(" latency[").append(latency).append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example;
+
+// JMX view of LoggerMetrics, totals over all instrumented sinks; registered with
+// LoggerMetrics.registerMBean() as org.example:type=LoggerMetrics
+public interface LoggerMetricsMXBean {
+
+    String[] getSinkNames();
+
+    long getMessageCount();
+
+    long getErrorCount();
+
+    long getWarningCount();
+
+    long getInfoCount();
+
+    long getDebugCount();
+
+    long getTraceCount();
+
+    long getBytesWritten();
+
+    long getDroppedCount();
+
+    long getSuppressedCount();
+
+    long getRateLimitedCount();
+
+    long getQueueDepth();
+
+    double getLatencyMeanNanos();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    long getLatencyMaxNanos();
+
+    void reset();
+}
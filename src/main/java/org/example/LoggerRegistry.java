@@ -0,0 +1,93 @@
+package org.example;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hierarchical registry of named loggers. "a.b.c" takes the level configured for "a.b.c",
+// else "a.b", else "a", else the root level. Levels are resolved when the configuration
+// changes and pushed into each logger, so checking a level never walks the hierarchy.
+public final class LoggerRegistry {
+
+    public static final String ROOT = "";
+
+    private static final Object LOCK = new Object();
+    private static final Map<String, LevelBasedLogger> LOGGERS = new ConcurrentHashMap<>();
+    // Explicitly configured levels, guarded by LOCK
+    private static final Map<String, Integer> CONFIGURED = new HashMap<>();
+
+    static {
+        CONFIGURED.put(ROOT, Logger.INFO);
+    }
+
+    private LoggerRegistry() {
+    }
+
+    public static LevelBasedLogger getLogger(String name) {
+        LevelBasedLogger logger = LOGGERS.get(name);
+        if (logger != null) {
+            return logger;
+        }
+        synchronized (LOCK) {
+            return LOGGERS.computeIfAbsent(name, n -> new LevelBasedLogger(n, resolve(n)));
+        }
+    }
+
+    // Sets the level for a name and everything below it that has no level of its own
+    public static void setLevel(String name, int level) {
+        synchronized (LOCK) {
+            CONFIGURED.put(name, level);
+            refresh(name);
+        }
+    }
+
+    // Removes an explicit level so the name inherits from its parent again
+    public static void clearLevel(String name) {
+        if (ROOT.equals(name)) {
+            throw new IllegalArgumentException("The root level cannot be cleared.");
+        }
+        synchronized (LOCK) {
+            CONFIGURED.remove(name);
+            refresh(name);
+        }
+    }
+
+    public static int getLevel(String name) {
+        LevelBasedLogger logger = LOGGERS.get(name);
+        if (logger != null) {
+            return logger.getLevel();
+        }
+        synchronized (LOCK) {
+            return resolve(name);
+        }
+    }
+
+    private static void refresh(String name) {
+        for (LevelBasedLogger logger : LOGGERS.values()) {
+            if (isSameOrDescendant(logger.getName(), name)) {
+                logger.applyEffectiveLevel(resolve(logger.getName()));
+            }
+        }
+    }
+
+    private static boolean isSameOrDescendant(String name, String ancestor) {
+        if (ancestor.isEmpty() || name.equals(ancestor)) {
+            return true;
+        }
+        return name.length() > ancestor.length()
+                && name.startsWith(ancestor)
+                && name.charAt(ancestor.length()) == '.';
+    }
+
+    private static int resolve(String name) {
+        String current = name;
+        while (true) {
+            Integer level = CONFIGURED.get(current);
+            if (level != null) {
+                return level;
+            }
+            int dot = current.lastIndexOf('.');
+            current = dot < 0 ? ROOT : current.substring(0, dot);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded cache that evicts roughly the least recently used entry, using CLOCK (second chance):
+// a hit only sets the entry's referenced bit, so lookups take no lock and don't reorder anything;
+// an insert into a full cache sweeps the ring of entries, clearing bits, and evicts the first
+// entry that wasn't used since the hand last passed it. Same eviction as MarkovModel's vocabulary.
+final class LruCache<K, V> {
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        volatile boolean referenced;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<K, V>> entries;
+    private final Entry<K, V>[] ring;
+    // Guarded by this
+    private int size;
+    private int hand;
+
+    @SuppressWarnings("unchecked")
+    LruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.entries = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.ring = (Entry<K, V>[]) new Entry<?, ?>[capacity];
+    }
+
+    V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        // Skip the write when it's already set, keeping the line shared between readers
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    void put(K key, V value) {
+        synchronized (this) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            int slot = size < ring.length ? size++ : evict();
+            Entry<K, V> entry = new Entry<>(key, value);
+            ring[slot] = entry;
+            entries.put(key, entry);
+        }
+    }
+
+    private int evict() {
+        while (true) {
+            Entry<K, V> entry = ring[hand];
+            int slot = hand;
+            hand = hand + 1 == ring.length ? 0 : hand + 1;
+            if (entry.referenced) {
+                entry.referenced = false;
+            } else {
+                entries.remove(entry.key);
+                return slot;
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int capacity() {
+        return ring.length;
+    }
+}
@@ -0,0 +1,169 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// File logger that encodes lines straight into a memory-mapped region of the file.
+// When a region is full the next one is mapped right after the last written byte,
+// so the only syscalls are the occasional map and the optional periodic force().
+// A mapped region is preallocated, so the file ends in NUL padding until close() truncates it;
+// a shutdown hook closes the logger on exit, and after a crash the next run starts writing
+// where the padding begins rather than after it.
+public class MappedFileLogger implements Logger, AutoCloseable {
+
+    public static final int DEFAULT_REGION_SIZE = 4 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ScheduledExecutorService forcer;
+    private final Thread shutdownHook;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long closedLength;
+    private boolean closed;
+
+    public MappedFileLogger(String filePath) throws IOException {
+        this(filePath, DEFAULT_REGION_SIZE, 0);
+    }
+
+    // forceIntervalMillis <= 0 leaves flushing to the OS page cache
+    public MappedFileLogger(String filePath, int regionSize, long forceIntervalMillis) throws IOException {
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("Region size must be positive.");
+        }
+        this.regionSize = regionSize;
+        this.channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Keep appending after whatever a previous run left behind, minus padding it didn't truncate
+        mapRegion(contentLength(channel), regionSize);
+
+        if (forceIntervalMillis > 0) {
+            forcer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mapped-file-logger-force");
+                thread.setDaemon(true);
+                return thread;
+            });
+            forcer.scheduleAtFixedRate(this::force, forceIntervalMillis, forceIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            forcer = null;
+        }
+
+        this.shutdownHook = new Thread(this::close, "mapped-file-logger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Length without the trailing NULs of an unclosed region; every line ends in '\n', so written
+    // bytes never end in a NUL
+    private static long contentLength(FileChannel channel) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - chunk.capacity());
+            chunk.clear().limit((int) (end - start));
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk, start + chunk.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = chunk.position() - 1; i >= 0; i--) {
+                if (chunk.get(i) != 0) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    @Override
+    public synchronized void log(String message) {
+        if (closed) {
+            System.err.println("Failed to log to file: logger is closed");
+            return;
+        }
+        try {
+            CharBuffer chars = CharBuffer.wrap(message);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, region, true);
+                if (result.isOverflow()) {
+                    // Roll to the next region; a line longer than a region gets a region of its own
+                    int needed = Math.max(regionSize, (int) Math.min(Integer.MAX_VALUE, chars.remaining() * 3L + 1));
+                    mapRegion(regionStart + region.position(), needed);
+                    continue;
+                }
+                break;
+            }
+            if (!region.hasRemaining()) {
+                mapRegion(regionStart + region.position(), regionSize);
+            }
+            region.put((byte) '\n');
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+    }
+
+    // With periodic forcing on, the outgoing region is forced before it is dropped: force() only
+    // sees the current region, so its tail would otherwise be left to the OS
+    private void mapRegion(long start, int size) throws IOException {
+        if (region != null && forcer != null) {
+            region.force();
+        }
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+    }
+
+    // Writes dirty pages of the current region back to the file
+    public synchronized void force() {
+        if (!closed) {
+            region.force();
+        }
+    }
+
+    // Bytes actually written so far, which is what the file is truncated to on close
+    public synchronized long length() {
+        return closed ? closedLength : regionStart + region.position();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down, this is the hook running
+        }
+        if (forcer != null) {
+            forcer.shutdownNow();
+        }
+        closedLength = regionStart + region.position();
+        region.force();
+        region = null;
+        try {
+            // Drop the unused tail of the last preallocated region
+            channel.truncate(closedLength);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to log to file: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Word-to-next-word model that keeps learning from every message instead of being rebuilt per call.
+// Words are interned to int ids; each word has a row of next-word counts in an open-addressing
+// int table, and sampling does a binary search over that row's cumulative counts, rebuilt only
+// after the row changes. At most vocabularyCap words are kept: a new word beyond that evicts one
+// that hasn't been seen since the clock hand last passed it, together with its row. Counts that
+// point at an evicted word carry its old epoch and are dropped the next time their row is rebuilt.
+//
+// save()/load() use a small binary file: magic, word count, (id, utf8 length, bytes) per word,
+// row count, (source id, entry count, (target id, count) per entry) per row.
+public final class MarkovModel {
+
+    public static final int DEFAULT_VOCABULARY_CAP = 10_000;
+    // Set -Dlogger.markov.model=path to load the shared model at startup and save it on exit
+    public static final String MODEL_FILE_PROPERTY = "logger.markov.model";
+
+    private static final int MAGIC = 0x4D4B5631; // "MKV1"
+    private static final int INITIAL_WORDS = 64;
+    private static final int NO_ID = -1;
+
+    private static volatile MarkovModel shared;
+
+    private final int vocabularyCap;
+    private String[] words = new String[INITIAL_WORDS];
+    private int[] epochs = new int[INITIAL_WORDS];
+    private boolean[] referenced = new boolean[INITIAL_WORDS];
+    private Row[] rows = new Row[INITIAL_WORDS];
+    // word -> id + 1, 0 = empty; linear probing with backward-shift deletion
+    private int[] index = new int[INITIAL_WORDS * 2];
+    private int size;
+    private int nextId;
+    private int hand;
+
+    public MarkovModel() {
+        this(DEFAULT_VOCABULARY_CAP);
+    }
+
+    public MarkovModel(int vocabularyCap) {
+        if (vocabularyCap < 2) {
+            throw new IllegalArgumentException("Vocabulary cap must be at least 2.");
+        }
+        this.vocabularyCap = vocabularyCap;
+    }
+
+    // The model behind logWithMarkovChainTransformation
+    public static MarkovModel shared() {
+        MarkovModel model = shared;
+        if (model == null) {
+            synchronized (MarkovModel.class) {
+                model = shared;
+                if (model == null) {
+                    model = createShared();
+                    shared = model;
+                }
+            }
+        }
+        return model;
+    }
+
+    private static MarkovModel createShared() {
+        MarkovModel model = new MarkovModel();
+        String file = System.getProperty(MODEL_FILE_PROPERTY);
+        if (file == null) {
+            return model;
+        }
+        Path path = Paths.get(file);
+        if (Files.exists(path)) {
+            try {
+                model.load(path);
+            } catch (IOException e) {
+                System.err.println("Failed to load Markov model: " + e.getMessage());
+            }
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                model.save(path);
+            } catch (IOException e) {
+                System.err.println("Failed to save Markov model: " + e.getMessage());
+            }
+        }, "markov-model-save"));
+        return model;
+    }
+
+    public int getVocabularyCap() {
+        return vocabularyCap;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Counts each word -> next word, plus last -> first like the original per-message chain
+    public synchronized void learn(String[] sentence) {
+        int count = sentence.length;
+        if (count < 2) {
+            return;
+        }
+        int[] ids = new int[count];
+        int[] idEpochs = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = intern(sentence[i]);
+            idEpochs[i] = epochs[ids[i]];
+        }
+        for (int i = 0; i < count; i++) {
+            int next = (i + 1) % count;
+            // A tiny cap can evict a word of this very sentence while interning the rest
+            if (epochs[ids[i]] == idEpochs[i] && epochs[ids[next]] == idEpochs[next]) {
+                row(ids[i]).increment(ids[next], idEpochs[next], epochs);
+            }
+        }
+    }
+
+    // Starts at start and follows sampled transitions for up to maxWords words, space-separated
+    public String generate(String start, int maxWords) {
+        return generate(start, maxWords, ThreadLocalRandom.current());
+    }
+
+    public synchronized String generate(String start, int maxWords, Random random) {
+        StringBuilder result = new StringBuilder(start);
+        int id = find(start);
+        for (int i = 1; i < maxWords && id != NO_ID; i++) {
+            Row row = rows[id];
+            id = row == null ? NO_ID : row.sample(random, epochs);
+            if (id != NO_ID) {
+                result.append(' ').append(words[id]);
+            }
+        }
+        return result.toString();
+    }
+
+    // Total count of word -> next, 0 if either is unknown
+    public synchronized int transitionCount(String word, String next) {
+        int from = find(word);
+        int to = find(next);
+        if (from == NO_ID || to == NO_ID || rows[from] == null) {
+            return 0;
+        }
+        return rows[from].count(to, epochs);
+    }
+
+    private Row row(int id) {
+        Row row = rows[id];
+        if (row == null) {
+            row = new Row();
+            rows[id] = row;
+        }
+        return row;
+    }
+
+    private int intern(String word) {
+        int id = find(word);
+        if (id != NO_ID) {
+            referenced[id] = true;
+            return id;
+        }
+        if (size < vocabularyCap) {
+            id = nextId++;
+            if (id == words.length) {
+                grow();
+            }
+        } else {
+            id = evict();
+        }
+        words[id] = word;
+        referenced[id] = true;
+        insertIndex(word, id);
+        size++;
+        return id;
+    }
+
+    // Clock: skip (and clear) recently referenced words, evict the first one that isn't
+    private int evict() {
+        while (true) {
+            int id = hand;
+            hand = (hand + 1) % nextId;
+            if (words[id] == null) {
+                continue;
+            }
+            if (referenced[id]) {
+                referenced[id] = false;
+                continue;
+            }
+            removeIndex(words[id]);
+            words[id] = null;
+            rows[id] = null;
+            // Counts other rows hold for this id are now stale
+            epochs[id]++;
+            size--;
+            return id;
+        }
+    }
+
+    private void grow() {
+        int capacity = Math.min(vocabularyCap, words.length * 2);
+        words = Arrays.copyOf(words, capacity);
+        epochs = Arrays.copyOf(epochs, capacity);
+        referenced = Arrays.copyOf(referenced, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        int[] oldIndex = index;
+        index = new int[Integer.highestOneBit(capacity) * 4];
+        for (int slot : oldIndex) {
+            if (slot != 0) {
+                insertIndex(words[slot - 1], slot - 1);
+            }
+        }
+    }
+
+    private int find(String word) {
+        int mask = index.length - 1;
+        for (int slot = mix(word.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return NO_ID;
+            }
+            if (words[entry - 1].equals(word)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void insertIndex(String word, int id) {
+        int mask = index.length - 1;
+        int slot = mix(word.hashCode()) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = id + 1;
+    }
+
+    private void removeIndex(String word) {
+        int mask = index.length - 1;
+        int slot = mix(word.hashCode()) & mask;
+        while (index[slot] == 0 || !words[index[slot] - 1].equals(word)) {
+            slot = (slot + 1) & mask;
+        }
+        // Shift later entries of the probe run back so lookups never stop at the hole early
+        int hole = slot;
+        for (slot = (slot + 1) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int home = mix(words[index[slot] - 1].hashCode()) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                index[hole] = index[slot];
+                hole = slot;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // Next-word counts for one word
+    private static final class Row {
+        private int[] targets = new int[4];
+        private int[] counts = new int[4];
+        // Epoch of the target when it was counted; a mismatch means the target was evicted
+        private int[] targetEpochs = new int[4];
+        private int used;
+        // Sampling arrays, rebuilt on the first sample after a change
+        private int[] cumulativeTargets;
+        private long[] cumulative;
+        private int live;
+        private boolean dirty = true;
+
+        void increment(int target, int epoch, int[] epochs) {
+            add(target, epoch, 1, epochs);
+        }
+
+        void add(int target, int epoch, int amount, int[] epochs) {
+            dirty = true;
+            int mask = targets.length - 1;
+            for (int slot = mix(target) & mask; ; slot = (slot + 1) & mask) {
+                if (counts[slot] == 0) {
+                    if ((used + 1) * 2 > targets.length) {
+                        rehash(epochs);
+                        add(target, epoch, amount, epochs);
+                        return;
+                    }
+                    targets[slot] = target;
+                    counts[slot] = amount;
+                    targetEpochs[slot] = epoch;
+                    used++;
+                    return;
+                }
+                if (targets[slot] == target) {
+                    if (targetEpochs[slot] != epoch) {
+                        // Same id, but it belongs to a different word now
+                        counts[slot] = amount;
+                        targetEpochs[slot] = epoch;
+                    } else {
+                        counts[slot] = (int) Math.min(Integer.MAX_VALUE, (long) counts[slot] + amount);
+                    }
+                    return;
+                }
+            }
+        }
+
+        int count(int target, int[] epochs) {
+            int mask = targets.length - 1;
+            for (int slot = mix(target) & mask; counts[slot] != 0; slot = (slot + 1) & mask) {
+                if (targets[slot] == target) {
+                    return targetEpochs[slot] == epochs[target] ? counts[slot] : 0;
+                }
+            }
+            return 0;
+        }
+
+        // Drops stale entries and grows if the live ones still fill half the table
+        private void rehash(int[] epochs) {
+            int[] oldTargets = targets;
+            int[] oldCounts = counts;
+            int[] oldEpochs = targetEpochs;
+            int liveEntries = 0;
+            for (int slot = 0; slot < oldCounts.length; slot++) {
+                if (oldCounts[slot] != 0 && oldEpochs[slot] == epochs[oldTargets[slot]]) {
+                    liveEntries++;
+                }
+            }
+            int capacity = oldTargets.length;
+            while ((liveEntries + 1) * 2 > capacity) {
+                capacity *= 2;
+            }
+            targets = new int[capacity];
+            counts = new int[capacity];
+            targetEpochs = new int[capacity];
+            used = 0;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldCounts.length; i++) {
+                if (oldCounts[i] != 0 && oldEpochs[i] == epochs[oldTargets[i]]) {
+                    int slot = mix(oldTargets[i]) & mask;
+                    while (counts[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    targets[slot] = oldTargets[i];
+                    counts[slot] = oldCounts[i];
+                    targetEpochs[slot] = oldEpochs[i];
+                    used++;
+                }
+            }
+        }
+
+        int sample(Random random, int[] epochs) {
+            if (dirty) {
+                rebuild(epochs);
+            }
+            if (live == 0) {
+                return NO_ID;
+            }
+            long total = cumulative[live - 1];
+            long pick = total <= Integer.MAX_VALUE ? random.nextInt((int) total) : Math.floorMod(random.nextLong(), total);
+            int low = 0;
+            int high = live - 1;
+            // First entry whose cumulative count exceeds pick
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] > pick) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            int target = cumulativeTargets[low];
+            if (epochs[target] != targetEpochAt(target)) {
+                // Evicted since the last rebuild, which the row can't see coming
+                dirty = true;
+                return sample(random, epochs);
+            }
+            return target;
+        }
+
+        private int targetEpochAt(int target) {
+            int mask = targets.length - 1;
+            for (int slot = mix(target) & mask; counts[slot] != 0; slot = (slot + 1) & mask) {
+                if (targets[slot] == target) {
+                    return targetEpochs[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void rebuild(int[] epochs) {
+            if (cumulative == null || cumulative.length < used) {
+                cumulativeTargets = new int[targets.length];
+                cumulative = new long[targets.length];
+            }
+            long running = 0;
+            live = 0;
+            for (int slot = 0; slot < counts.length; slot++) {
+                if (counts[slot] != 0 && targetEpochs[slot] == epochs[targets[slot]]) {
+                    running += counts[slot];
+                    cumulativeTargets[live] = targets[slot];
+                    cumulative[live] = running;
+                    live++;
+                }
+            }
+            dirty = false;
+        }
+    }
+
+    public synchronized void save(Path path) throws IOException {
+        // Write next to the target and move it into place, so a crash never leaves half a model
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            for (int id = 0; id < nextId; id++) {
+                if (words[id] != null) {
+                    byte[] bytes = words[id].getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(id);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            int rowCount = 0;
+            for (int id = 0; id < nextId; id++) {
+                if (words[id] != null && rows[id] != null) {
+                    rowCount++;
+                }
+            }
+            out.writeInt(rowCount);
+            for (int id = 0; id < nextId; id++) {
+                Row row = rows[id];
+                if (words[id] == null || row == null) {
+                    continue;
+                }
+                row.rebuild(epochs);
+                out.writeInt(id);
+                out.writeInt(row.live);
+                long previous = 0;
+                for (int i = 0; i < row.live; i++) {
+                    out.writeInt(row.cumulativeTargets[i]);
+                    out.writeInt((int) (row.cumulative[i] - previous));
+                    previous = row.cumulative[i];
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Adds the saved words and counts to this model; words past the cap evict as usual
+    public synchronized void load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a Markov model file: " + path);
+            }
+            int wordCount = in.readInt();
+            int[] savedIds = new int[wordCount];
+            int[] newIds = new int[wordCount];
+            int[] newEpochs = new int[wordCount];
+            for (int i = 0; i < wordCount; i++) {
+                savedIds[i] = in.readInt();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                newIds[i] = intern(new String(bytes, StandardCharsets.UTF_8));
+                newEpochs[i] = epochs[newIds[i]];
+            }
+            // Saved ids are written in ascending order, so they can be looked up by binary search
+            int rowCount = in.readInt();
+            for (int r = 0; r < rowCount; r++) {
+                int source = Arrays.binarySearch(savedIds, in.readInt());
+                int entries = in.readInt();
+                for (int e = 0; e < entries; e++) {
+                    int target = Arrays.binarySearch(savedIds, in.readInt());
+                    int count = in.readInt();
+                    if (source >= 0 && target >= 0
+                            && epochs[newIds[source]] == newEpochs[source]
+                            && epochs[newIds[target]] == newEpochs[target]) {
+                        row(newIds[source]).add(newIds[target], newEpochs[target], count, epochs);
+                    }
+                }
+            }
+        }
+    }
+}
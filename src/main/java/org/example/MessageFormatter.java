@@ -0,0 +1,69 @@
+package org.example;
+
+// Fills "{}" templates into a per-thread StringBuilder so the enabled logging path
+// only allocates the final String
+final class MessageFormatter {
+
+    private static final String PLACEHOLDER = "{}";
+    private static final int INITIAL_CAPACITY = 256;
+    // Buffers that grew past this are replaced so one huge message doesn't pin memory per thread
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    private MessageFormatter() {
+    }
+
+    // Returns this thread's buffer, emptied; callers must be done with it before logging
+    static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+            BUFFER.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    static void format(StringBuilder out, String template, long arg) {
+        int at = template.indexOf(PLACEHOLDER);
+        if (at < 0) {
+            out.append(template);
+            return;
+        }
+        out.append(template, 0, at).append(arg).append(template, at + PLACEHOLDER.length(), template.length());
+    }
+
+    static void format(StringBuilder out, String template, double arg) {
+        int at = template.indexOf(PLACEHOLDER);
+        if (at < 0) {
+            out.append(template);
+            return;
+        }
+        out.append(template, 0, at).append(arg).append(template, at + PLACEHOLDER.length(), template.length());
+    }
+
+    static void format(StringBuilder out, String template, String arg) {
+        int at = template.indexOf(PLACEHOLDER);
+        if (at < 0) {
+            out.append(template);
+            return;
+        }
+        out.append(template, 0, at).append(arg).append(template, at + PLACEHOLDER.length(), template.length());
+    }
+
+    // Fills placeholders left to right; extra placeholders stay as "{}", extra args are ignored
+    static void format(StringBuilder out, String template, Object[] args) {
+        int from = 0;
+        for (Object arg : args) {
+            int at = template.indexOf(PLACEHOLDER, from);
+            if (at < 0) {
+                break;
+            }
+            out.append(template, from, at).append(arg);
+            from = at + PLACEHOLDER.length();
+        }
+        out.append(template, from, template.length());
+    }
+}
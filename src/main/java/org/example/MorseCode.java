@@ -0,0 +1,220 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntConsumer;
+
+// International Morse code for letters, digits and . , ? !
+// Encoding reads from arrays indexed by char, with the symbols also kept as ASCII bytes for
+// ByteBuffer output. Decoding walks a binary-heap trie: start at 1, a dot goes to 2i and a dash to
+// 2i + 1, and the node reached holds the char. Text form: symbols separated by one space, words
+// by " / ", letters decode to lower case.
+public final class MorseCode {
+
+    private static final int TABLE_SIZE = 128;
+    // The longest symbol has 6 elements, so nodes stay below 2^7
+    private static final int TRIE_SIZE = 128;
+    private static final char NO_CHAR = 0;
+
+    private static final String[] SYMBOLS = new String[TABLE_SIZE];
+    // Symbol bytes followed by a space, what the ByteBuffer encoder writes per char
+    private static final byte[][] SYMBOL_BYTES = new byte[TABLE_SIZE][];
+    private static final byte[] WORD_GAP_BYTES = {'/', ' '};
+    private static final char[] TRIE = new char[TRIE_SIZE];
+
+    static {
+        define('a', ".-");
+        define('b', "-...");
+        define('c', "-.-.");
+        define('d', "-..");
+        define('e', ".");
+        define('f', "..-.");
+        define('g', "--.");
+        define('h', "....");
+        define('i', "..");
+        define('j', ".---");
+        define('k', "-.-");
+        define('l', ".-..");
+        define('m', "--");
+        define('n', "-.");
+        define('o', "---");
+        define('p', ".--.");
+        define('q', "--.-");
+        define('r', ".-.");
+        define('s', "...");
+        define('t', "-");
+        define('u', "..-");
+        define('v', "...-");
+        define('w', ".--");
+        define('x', "-..-");
+        define('y', "-.--");
+        define('z', "--..");
+        define('0', "-----");
+        define('1', ".----");
+        define('2', "..---");
+        define('3', "...--");
+        define('4', "....-");
+        define('5', ".....");
+        define('6', "-....");
+        define('7', "--...");
+        define('8', "---..");
+        define('9', "----.");
+        define('.', ".-.-.-");
+        define(',', "--..--");
+        define('?', "..--..");
+        define('!', "-.-.--");
+    }
+
+    private MorseCode() {
+    }
+
+    private static void define(char c, String symbol) {
+        byte[] bytes = (symbol + ' ').getBytes(StandardCharsets.US_ASCII);
+        SYMBOLS[c] = symbol;
+        SYMBOL_BYTES[c] = bytes;
+        if (c >= 'a' && c <= 'z') {
+            char upper = Character.toUpperCase(c);
+            SYMBOLS[upper] = symbol;
+            SYMBOL_BYTES[upper] = bytes;
+        }
+        int node = 1;
+        for (int i = 0; i < symbol.length(); i++) {
+            node = node * 2 + (symbol.charAt(i) == '-' ? 1 : 0);
+        }
+        TRIE[node] = c;
+    }
+
+    public static boolean canEncode(char c) {
+        return c == ' ' || (c < TABLE_SIZE && SYMBOLS[c] != null);
+    }
+
+    public static String encode(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length() * 4);
+        encode(text, out, null);
+        return out.toString();
+    }
+
+    // Chars without a symbol are skipped and, if unknown isn't null, reported to it
+    public static void encode(CharSequence text, StringBuilder out, IntConsumer unknown) {
+        try {
+            encode(text, (Appendable) out, unknown);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void encode(CharSequence text, Appendable out, IntConsumer unknown) throws IOException {
+        boolean first = true;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String symbol = c == ' ' ? "/" : c < TABLE_SIZE ? SYMBOLS[c] : null;
+            if (symbol == null) {
+                if (unknown != null) {
+                    unknown.accept(c);
+                }
+                continue;
+            }
+            if (!first) {
+                out.append(' ');
+            }
+            out.append(symbol);
+            first = false;
+        }
+    }
+
+    // Encodes text[from, ...) as ASCII bytes, each symbol followed by a space, and stops before the
+    // first char that doesn't fit. Returns the index to resume from; text.length() when done.
+    // Chars without a symbol are skipped.
+    public static int encode(CharSequence text, int from, ByteBuffer out) {
+        int length = text.length();
+        int i = from;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            byte[] bytes = c == ' ' ? WORD_GAP_BYTES : c < TABLE_SIZE ? SYMBOL_BYTES[c] : null;
+            if (bytes == null) {
+                continue;
+            }
+            if (out.remaining() < bytes.length) {
+                break;
+            }
+            out.put(bytes);
+        }
+        return i;
+    }
+
+    public static String decode(CharSequence morse) {
+        StringBuilder out = new StringBuilder(morse.length() / 3 + 1);
+        decode(morse, out);
+        return out.toString();
+    }
+
+    // Throws IllegalArgumentException on anything that isn't a known symbol, '/' or whitespace
+    public static void decode(CharSequence morse, StringBuilder out) {
+        try {
+            decode(morse, (Appendable) out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void decode(CharSequence morse, Appendable out) throws IOException {
+        int node = 1;
+        int length = morse.length();
+        for (int i = 0; i < length; i++) {
+            node = step(node, morse.charAt(i), out, i);
+        }
+        finish(node, out, length);
+    }
+
+    // Decodes the remaining ASCII bytes of in, as written by encode(CharSequence, int, ByteBuffer)
+    public static void decode(ByteBuffer in, Appendable out) throws IOException {
+        int node = 1;
+        int start = in.position();
+        while (in.hasRemaining()) {
+            int position = in.position() - start;
+            node = step(node, (char) (in.get() & 0xFF), out, position);
+        }
+        finish(node, out, in.position() - start);
+    }
+
+    // Advances the trie by one input char, emitting a decoded char at each separator
+    private static int step(int node, char c, Appendable out, int index) throws IOException {
+        switch (c) {
+            case '.':
+            case '-':
+                node = node * 2 + (c == '-' ? 1 : 0);
+                if (node >= TRIE_SIZE) {
+                    throw new IllegalArgumentException("Invalid Morse symbol ending at index " + index);
+                }
+                return node;
+            case '/':
+                finish(node, out, index);
+                out.append(' ');
+                return 1;
+            case ' ':
+            case '\t':
+            case '\r':
+            case '\n':
+                finish(node, out, index);
+                return 1;
+            default:
+                throw new IllegalArgumentException("Invalid Morse character '" + c + "' at index " + index);
+        }
+    }
+
+    // Emits the char for node; node 1 is the root, i.e. nothing pending
+    private static void finish(int node, Appendable out, int index) throws IOException {
+        if (node == 1) {
+            return;
+        }
+        char c = TRIE[node];
+        if (c == NO_CHAR) {
+            throw new IllegalArgumentException("Invalid Morse symbol ending at index " + index);
+        }
+        out.append(c);
+    }
+}
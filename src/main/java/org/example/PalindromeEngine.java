@@ -0,0 +1,206 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Palindrome detection for the palindrome loggers, working on spans of the original text:
+// checks walk two pointers inwards instead of comparing against a reversed copy, and the
+// highlighters copy the text to the output once, wrapping palindromes as they go.
+//
+// Two modes:
+//   highlightWords   - every word (a run of \w chars, like \b\w+\b) whose ASCII letters read the
+//                      same backwards, ignoring case and everything that isn't a letter
+//   highlightLongest - the longest palindromic substrings anywhere in the text, exact chars,
+//                      found with Manacher's algorithm in O(n) time
+public final class PalindromeEngine {
+
+    // Reported for each longest palindrome, in order of start
+    @FunctionalInterface
+    public interface SpanHandler {
+        void onPalindrome(int start, int end);
+    }
+
+    // Radius and start arrays up to this many ints are kept per thread; bigger texts get their own
+    private static final int MAX_RETAINED_SCRATCH = 1 << 15;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        int[] radii = new int[256];
+        int[] starts = new int[16];
+        int count;
+    }
+
+    private PalindromeEngine() {
+    }
+
+    // Exact chars, at least two of them
+    public static boolean isPalindrome(CharSequence text, int start, int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        for (int left = start, right = end - 1; left < right; left++, right--) {
+            if (text.charAt(left) != text.charAt(right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compares only the ASCII letters of text[start, end), ignoring case; needs at least two of them
+    public static boolean isLetterPalindrome(CharSequence text, int start, int end) {
+        int letters = 0;
+        int left = start;
+        int right = end - 1;
+        while (true) {
+            while (left < end && !isAsciiLetter(text.charAt(left))) {
+                left++;
+            }
+            while (right >= start && !isAsciiLetter(text.charAt(right))) {
+                right--;
+            }
+            if (left >= right) {
+                // Count the middle letter, if any, toward the two-letter minimum
+                return letters * 2 + (left == right ? 1 : 0) > 1;
+            }
+            if ((text.charAt(left) | 0x20) != (text.charAt(right) | 0x20)) {
+                return false;
+            }
+            letters++;
+            left++;
+            right--;
+        }
+    }
+
+    // Appends text to out with every palindromic word wrapped in before/after
+    public static void highlightWords(CharSequence text, String before, String after, StringBuilder out) {
+        int length = text.length();
+        int lastIndex = 0;
+        int i = 0;
+        while (i < length) {
+            if (!isWordChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isWordChar(text.charAt(i))) {
+                i++;
+            }
+            // \b treats non-ASCII letters and digits as word chars too; like the regex, a run
+            // touching one isn't a word
+            if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))
+                    || i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                continue;
+            }
+            if (isLetterPalindrome(text, start, i)) {
+                out.append(text, lastIndex, start).append(before).append(text, start, i).append(after);
+                lastIndex = i;
+            }
+        }
+        out.append(text, lastIndex, length);
+    }
+
+    // Appends text to out with its longest palindromic substrings wrapped in before/after, each
+    // one in its own highlight, so every highlighted span reads the same backwards. Where longest
+    // palindromes overlap ("aba" and "bab" in "abab") only the first is highlighted; ones that
+    // merely touch are all highlighted. Nothing is highlighted if the longest is a single char.
+    public static void highlightLongest(CharSequence text, String before, String after, StringBuilder out) {
+        Scratch scratch = SCRATCH.get();
+        int longest = findLongest(text, scratch);
+        int[] starts = scratch.starts;
+        int lastIndex = 0;
+        for (int i = 0; i < scratch.count; i++) {
+            int start = starts[i];
+            // Starts are in order, so only the previous highlight can overlap this one
+            if (start < lastIndex) {
+                continue;
+            }
+            out.append(text, lastIndex, start).append(before).append(text, start, start + longest).append(after);
+            lastIndex = start + longest;
+        }
+        out.append(text, lastIndex, text.length());
+        release(scratch);
+    }
+
+    // Reports every longest palindromic substring of two or more chars to handler, in order of
+    // start. Returns their length, 0 if there are none.
+    public static int longestPalindromes(CharSequence text, SpanHandler handler) {
+        Scratch scratch = SCRATCH.get();
+        int longest = findLongest(text, scratch);
+        // Copied, as the handler may run the engine again on this thread
+        int[] starts = Arrays.copyOf(scratch.starts, scratch.count);
+        release(scratch);
+        for (int start : starts) {
+            handler.onPalindrome(start, start + longest);
+        }
+        return longest;
+    }
+
+    // Manacher over the text with a virtual separator between chars (and at both ends), so even
+    // and odd lengths are handled alike: position p of the separated text is a separator when p is
+    // even and text[(p - 1) / 2] when odd, and radius[p] is the length of the palindrome centered
+    // there. Each center starts from its mirror's radius inside the rightmost palindrome found so
+    // far, so the comparisons add up to O(n). The starts of the longest ones, in order, are left
+    // in scratch.starts[0, scratch.count).
+    private static int findLongest(CharSequence text, Scratch scratch) {
+        int positions = 2 * text.length() + 1;
+        int[] radii = positions <= scratch.radii.length ? scratch.radii : radii(scratch, positions);
+        int[] starts = scratch.starts;
+        int count = 0;
+        int longest = 0;
+
+        int center = 0;
+        int right = 0;
+        for (int p = 0; p < positions; p++) {
+            int radius = p < right ? Math.min(right - p, radii[2 * center - p]) : 0;
+            while (p - radius > 0 && p + radius < positions - 1
+                    && matches(text, p - radius - 1, p + radius + 1)) {
+                radius++;
+            }
+            radii[p] = radius;
+            if (p + radius > right) {
+                center = p;
+                right = p + radius;
+            }
+            if (radius >= longest && radius > 1) {
+                if (radius > longest) {
+                    longest = radius;
+                    count = 0;
+                }
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = (p - radius) / 2;
+            }
+        }
+        scratch.starts = starts;
+        scratch.count = count;
+        return longest;
+    }
+
+    private static int[] radii(Scratch scratch, int positions) {
+        int[] radii = new int[positions];
+        if (positions <= MAX_RETAINED_SCRATCH) {
+            scratch.radii = radii;
+        }
+        return radii;
+    }
+
+    private static void release(Scratch scratch) {
+        if (scratch.starts.length > MAX_RETAINED_SCRATCH) {
+            scratch.starts = new int[16];
+        }
+    }
+
+    // Positions mirrored around a center have the same parity: separators always match
+    private static boolean matches(CharSequence text, int left, int right) {
+        return (left & 1) == 0 || text.charAt((left - 1) >> 1) == text.charAt((right - 1) >> 1);
+    }
+
+    private static boolean isWordChar(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
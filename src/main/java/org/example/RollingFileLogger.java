@@ -0,0 +1,204 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// File logger that rotates log.txt into log.txt.<timestamp>.gz archives by size and by age.
+// Rotation happens under the same lock as writes; gzip and retention run on a background thread.
+public class RollingFileLogger implements Logger, AutoCloseable {
+
+    private static final DateTimeFormatter ARCHIVE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    private static final String ARCHIVE_SUFFIX = ".gz";
+    // After a failed roll the file keeps growing for this long before the next attempt
+    private static final long ROLL_RETRY_MILLIS = 1000;
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final long rollIntervalMillis;
+    private final int maxArchives;
+    private final long maxArchiveBytes;
+    private final ExecutorService compressor;
+
+    private FileChannel channel;
+    private long fileBytes;
+    private long nextRollMillis;
+    private long retryRollMillis;
+    private int sequence;
+    private boolean closed;
+
+    // maxFileBytes / rollInterval / maxArchives / maxArchiveBytes <= 0 (or null) disable that limit
+    public RollingFileLogger(String filePath, long maxFileBytes, Duration rollInterval,
+                             int maxArchives, long maxArchiveBytes) throws IOException {
+        this.file = Paths.get(filePath).toAbsolutePath();
+        this.maxFileBytes = maxFileBytes;
+        this.rollIntervalMillis = rollInterval == null ? 0 : rollInterval.toMillis();
+        this.maxArchives = maxArchives;
+        this.maxArchiveBytes = maxArchiveBytes;
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rolling-file-logger-gzip");
+            thread.setDaemon(true);
+            return thread;
+        });
+        open();
+    }
+
+    @Override
+    public void log(String message) {
+        byte[] line = (message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (closed) {
+                System.err.println("Failed to log to file: logger is closed");
+                return;
+            }
+            try {
+                // Only closed here if reopening after a roll failed too; try again rather than give up for good
+                if (!channel.isOpen()) {
+                    open();
+                }
+                if (shouldRoll(line.length)) {
+                    roll();
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                fileBytes += line.length;
+            } catch (IOException e) {
+                System.err.println("Failed to log to file: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean shouldRoll(int incomingBytes) {
+        if (fileBytes == 0 || System.currentTimeMillis() < retryRollMillis) {
+            return false;
+        }
+        if (maxFileBytes > 0 && fileBytes + incomingBytes > maxFileBytes) {
+            return true;
+        }
+        return rollIntervalMillis > 0 && System.currentTimeMillis() >= nextRollMillis;
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        nextRollMillis = System.currentTimeMillis() + rollIntervalMillis;
+    }
+
+    // Renames the active file out of the way and reopens a fresh one; only the rename happens on the caller's thread.
+    // The file is reopened whether or not the rename worked, so a failed roll never leaves the logger closed.
+    private void roll() throws IOException {
+        channel.close();
+        String stamp = LocalDateTime.now().format(ARCHIVE_STAMP);
+        // Archive names sort chronologically: stamp plus a sequence for rolls within the same millisecond
+        Path rolled = file.resolveSibling(String.format("%s.%s.%03d", file.getFileName(), stamp, sequence++ % 1000));
+        boolean moved = false;
+        try {
+            move(file, rolled);
+            moved = true;
+        } catch (IOException e) {
+            System.err.println("Failed to roll log file: " + e.getMessage());
+            retryRollMillis = System.currentTimeMillis() + ROLL_RETRY_MILLIS;
+        } finally {
+            open();
+        }
+        if (moved) {
+            compressor.execute(() -> compressAndPrune(rolled));
+        }
+    }
+
+    // Atomic where the file system supports it, a plain rename otherwise
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    private void compressAndPrune(Path rolled) {
+        Path archive = rolled.resolveSibling(rolled.getFileName() + ARCHIVE_SUFFIX);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(archive))) {
+            Files.copy(rolled, out);
+        } catch (IOException e) {
+            System.err.println("Failed to compress log file: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(rolled);
+            prune();
+        } catch (IOException e) {
+            System.err.println("Failed to apply log retention: " + e.getMessage());
+        }
+    }
+
+    // Deletes the oldest archives until both the count and the total size limits hold
+    private void prune() throws IOException {
+        if (maxArchives <= 0 && maxArchiveBytes <= 0) {
+            return;
+        }
+        List<Path> archives = new ArrayList<>();
+        String prefix = file.getFileName() + ".";
+        // Compared as plain strings: a glob built from the file name would treat [, { and * in it as patterns
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.getParent(), entry -> {
+            String name = entry.getFileName().toString();
+            return name.startsWith(prefix) && name.endsWith(ARCHIVE_SUFFIX);
+        })) {
+            stream.forEach(archives::add);
+        }
+        archives.sort(Comparator.comparing(Path::toString).reversed());
+
+        long totalBytes = 0;
+        for (int i = 0; i < archives.size(); i++) {
+            Path archive = archives.get(i);
+            totalBytes += Files.size(archive);
+            boolean tooMany = maxArchives > 0 && i >= maxArchives;
+            boolean tooLarge = maxArchiveBytes > 0 && totalBytes > maxArchiveBytes;
+            if (tooMany || tooLarge) {
+                Files.deleteIfExists(archive);
+            }
+        }
+    }
+
+    // Closes the active file and waits for pending compressions to finish
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to log to file: " + e.getMessage());
+            }
+        }
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
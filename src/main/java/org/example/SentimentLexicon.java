@@ -0,0 +1,167 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Weighted sentiment terms, single words or phrases, matched all at once: the terms are compiled
+// into one case-insensitive Aho-Corasick automaton, so a message is scanned once however many
+// terms there are. A term only counts as a whole word, and where matches overlap the leftmost,
+// then longest, wins ("not good" over "good"). Matches are colored by the sign of their weight
+// and the weights add up to the message's score.
+//
+// A lexicon file has one "term<TAB>weight" per line; blank lines and lines starting with # are
+// skipped and a term listed twice keeps its last weight. A lexicon never changes once built:
+// reload() builds the new one on the caller's thread and then swaps the shared reference, so
+// logging threads never wait for a reload.
+public final class SentimentLexicon {
+
+    // Set -Dlogger.sentiment.lexicon=path to start with that file instead of the built-in terms
+    public static final String LEXICON_FILE_PROPERTY = "logger.sentiment.lexicon";
+
+    // The words logWithSentimentHighlight always knew
+    public static final SentimentLexicon BUILT_IN = of(builtInWeights());
+
+    private static volatile SentimentLexicon shared = createShared();
+
+    private static final ThreadLocal<WordMatches> MATCHES = ThreadLocal.withInitial(WordMatches::new);
+
+    // Sorted longest first, so at equal starts the lower index is the longer term
+    private final String[] terms;
+    private final double[] weights;
+    private final AhoCorasick matcher;
+
+    private SentimentLexicon(Map<String, Double> termWeights) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(termWeights.entrySet());
+        entries.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+        this.terms = new String[entries.size()];
+        this.weights = new double[entries.size()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = entries.get(i).getKey();
+            weights[i] = entries.get(i).getValue();
+        }
+        this.matcher = terms.length == 0 ? null : new AhoCorasick(Arrays.asList(terms), true);
+    }
+
+    public static SentimentLexicon of(Map<String, Double> termWeights) {
+        Map<String, Double> normalized = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : termWeights.entrySet()) {
+            String term = entry.getKey().trim();
+            if (term.isEmpty()) {
+                throw new IllegalArgumentException("Terms must not be empty.");
+            }
+            normalized.put(term.toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        return new SentimentLexicon(normalized);
+    }
+
+    public static SentimentLexicon load(Path path) throws IOException {
+        Map<String, Double> termWeights = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.lastIndexOf('\t');
+                String term = tab < 0 ? "" : line.substring(0, tab).trim();
+                if (term.isEmpty()) {
+                    throw new IOException("Invalid lexicon line " + lineNumber + " in " + path + ": " + line);
+                }
+                try {
+                    termWeights.put(term, Double.parseDouble(line.substring(tab + 1).trim()));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid weight on lexicon line " + lineNumber + " in " + path + ": " + line);
+                }
+            }
+        }
+        return of(termWeights);
+    }
+
+    public static SentimentLexicon shared() {
+        return shared;
+    }
+
+    public static void install(SentimentLexicon lexicon) {
+        shared = lexicon;
+    }
+
+    // Loads path and makes it the shared lexicon; on failure the current one stays
+    public static SentimentLexicon reload(Path path) throws IOException {
+        SentimentLexicon lexicon = load(path);
+        shared = lexicon;
+        return lexicon;
+    }
+
+    private static SentimentLexicon createShared() {
+        String file = System.getProperty(LEXICON_FILE_PROPERTY);
+        if (file == null) {
+            return BUILT_IN;
+        }
+        try {
+            return load(Paths.get(file));
+        } catch (IOException e) {
+            System.err.println("Failed to load sentiment lexicon: " + e.getMessage());
+            return BUILT_IN;
+        }
+    }
+
+    private static Map<String, Double> builtInWeights() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String word : new String[] {"good", "great", "happy", "fantastic"}) {
+            weights.put(word, 1.0);
+        }
+        for (String word : new String[] {"bad", "sad", "hate", "terrible"}) {
+            weights.put(word, -1.0);
+        }
+        return weights;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    public double score(CharSequence text) {
+        return highlight(text, Style.PLAIN, Style.PLAIN, null);
+    }
+
+    // Appends text to out with positive terms in positiveColor and negative ones in negativeColor;
+    // returns the score. The colors go through Style, so they are left out when stdout isn't a terminal.
+    public double highlight(CharSequence text, String positiveColor, String negativeColor, StringBuilder out) {
+        return highlight(text, Style.of(positiveColor), Style.of(negativeColor), out);
+    }
+
+    public double highlight(CharSequence text, Style positive, Style negative, StringBuilder out) {
+        WordMatches matches = MATCHES.get();
+        int count = matcher == null ? 0 : matches.find(matcher, text);
+        double score = 0;
+        int lastIndex = 0;
+        for (int i = 0; i < count; i++) {
+            double weight = weights[matches.pattern(i)];
+            score += weight;
+            if (out != null && weight != 0) {
+                Style style = weight > 0 ? positive : negative;
+                out.append(text, lastIndex, matches.start(i))
+                        .append(style.prefix())
+                        .append(text, matches.start(i), matches.end(i))
+                        .append(style.suffix());
+                lastIndex = matches.end(i);
+            }
+        }
+        if (out != null) {
+            out.append(text, lastIndex, text.length());
+        }
+        return score;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// An immutable combination of ColorCodes (color, background, effect). The escape sequences are
+// joined and encoded to UTF-8 once, so styling a message is one concatenation or two byte copies.
+// When stdout is not a terminal the escapes are dropped entirely; override the detection with
+// -Dlogger.ansi=always|never.
+public final class Style {
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    public static final Style PLAIN = new Style("", "");
+
+    private static final boolean ANSI_ENABLED = detectAnsi();
+    private static final Map<String, Style> CACHE = new ConcurrentHashMap<>();
+
+    private final String prefix;
+    private final String suffix;
+    private final byte[] prefixBytes;
+    private final byte[] suffixBytes;
+
+    private Style(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.prefixBytes = prefix.isEmpty() ? NO_BYTES : prefix.getBytes(StandardCharsets.UTF_8);
+        this.suffixBytes = suffix.isEmpty() ? NO_BYTES : suffix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // e.g. Style.of(ColorCodes.GREEN, ColorCodes.BLUE_BG, ColorCodes.BOLD); shared per combination
+    public static Style of(String... codes) {
+        if (!ANSI_ENABLED) {
+            return PLAIN;
+        }
+        return of(String.join("", codes));
+    }
+
+    // Single code lookup, no varargs array on the per-message paths
+    public static Style of(String code) {
+        if (!ANSI_ENABLED || code.isEmpty()) {
+            return PLAIN;
+        }
+        Style style = CACHE.get(code);
+        return style != null ? style : CACHE.computeIfAbsent(code, c -> new Style(c, ColorCodes.RESET));
+    }
+
+    public static boolean isAnsiEnabled() {
+        return ANSI_ENABLED;
+    }
+
+    public String apply(String message) {
+        if (this == PLAIN) {
+            return message;
+        }
+        return prefix.concat(message).concat(suffix);
+    }
+
+    String prefix() {
+        return prefix;
+    }
+
+    String suffix() {
+        return suffix;
+    }
+
+    public int prefixLength() {
+        return prefixBytes.length;
+    }
+
+    public int suffixLength() {
+        return suffixBytes.length;
+    }
+
+    // Writes prefix + message + suffix; returns false, with out's position unchanged, if it doesn't fit
+    public boolean encode(CharSequence message, ByteBuffer out, CharsetEncoder encoder) {
+        int start = out.position();
+        if (out.remaining() < prefixBytes.length + suffixBytes.length) {
+            return false;
+        }
+        out.put(prefixBytes);
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(message), out, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(out);
+        }
+        if (result.isOverflow() || out.remaining() < suffixBytes.length) {
+            out.position(start);
+            return false;
+        }
+        out.put(suffixBytes);
+        return true;
+    }
+
+    private static boolean detectAnsi() {
+        String mode = System.getProperty("logger.ansi", "auto");
+        if ("always".equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if ("never".equalsIgnoreCase(mode)) {
+            return false;
+        }
+        // System.console() is null when stdin or stdout is redirected
+        return System.console() != null && System.getenv("NO_COLOR") == null;
+    }
+
+    @Override
+    public String toString() {
+        return this == PLAIN ? "Style[plain]" : "Style[" + prefix.replace("\u001B", "ESC") + "]";
+    }
+}
@@ -0,0 +1,120 @@
+package org.example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Renders "yyyy-MM-dd HH:mm:ss[.SSS|.SSSSSS][ z]" timestamps. The date and time part is
+// formatted once per second and reused; only the fraction digits are written per call.
+public final class TimestampRenderer {
+
+    public enum Precision {
+        SECONDS,
+        MILLIS,
+        MICROS
+    }
+
+    private static final DateTimeFormatter ZONE_NAME = LoggerCaches.formatter("z");
+    private static final Map<ZoneId, TimestampRenderer> ZONED = new ConcurrentHashMap<>();
+    private static final TimestampRenderer SYSTEM_DEFAULT =
+            new TimestampRenderer(Clock.systemDefaultZone(), Precision.SECONDS, false);
+
+    private final Clock clock;
+    private final ZoneId zone;
+    private final Precision precision;
+    private final boolean appendZone;
+    private volatile CachedSecond cached;
+
+    // Formatted text for one wall-clock second, replaced as a whole so readers never see a torn update
+    private static final class CachedSecond {
+        final long epochSecond;
+        final char[] dateTime;
+        final String zoneName;
+
+        CachedSecond(long epochSecond, char[] dateTime, String zoneName) {
+            this.epochSecond = epochSecond;
+            this.dateTime = dateTime;
+            this.zoneName = zoneName;
+        }
+    }
+
+    public TimestampRenderer(Clock clock, Precision precision, boolean appendZone) {
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.precision = precision;
+        this.appendZone = appendZone;
+    }
+
+    // Second-precision renderer in the JVM default zone, as used by logWithTimestamp
+    public static TimestampRenderer systemDefault() {
+        return SYSTEM_DEFAULT;
+    }
+
+    // Second-precision renderer with the zone name appended, one shared instance per zone
+    public static TimestampRenderer forZone(ZoneId zone) {
+        return ZONED.computeIfAbsent(zone, z -> new TimestampRenderer(Clock.system(z), Precision.SECONDS, true));
+    }
+
+    public void render(StringBuilder out) {
+        long epochSecond;
+        int fraction;
+        if (precision == Precision.MICROS) {
+            Instant now = clock.instant();
+            epochSecond = now.getEpochSecond();
+            fraction = now.getNano() / 1_000;
+        } else {
+            long millis = clock.millis();
+            epochSecond = Math.floorDiv(millis, 1000L);
+            fraction = (int) Math.floorMod(millis, 1000L);
+        }
+
+        CachedSecond second = cached;
+        if (second == null || second.epochSecond != epochSecond) {
+            second = format(epochSecond);
+            cached = second;
+        }
+
+        out.append(second.dateTime);
+        if (precision == Precision.MILLIS) {
+            out.append('.');
+            appendPadded(out, fraction, 3);
+        } else if (precision == Precision.MICROS) {
+            out.append('.');
+            appendPadded(out, fraction, 6);
+        }
+        if (appendZone) {
+            out.append(' ').append(second.zoneName);
+        }
+    }
+
+    public String render() {
+        StringBuilder out = new StringBuilder(32);
+        render(out);
+        return out.toString();
+    }
+
+    private CachedSecond format(long epochSecond) {
+        ZonedDateTime dateTime = Instant.ofEpochSecond(epochSecond).atZone(zone);
+        return new CachedSecond(epochSecond,
+                LoggerCaches.TIMESTAMP.format(dateTime).toCharArray(),
+                appendZone ? ZONE_NAME.format(dateTime) : null);
+    }
+
+    private static void appendPadded(StringBuilder out, int value, int digits) {
+        for (int divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private static int pow10(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
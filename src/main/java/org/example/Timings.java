@@ -0,0 +1,207 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Timing spans for code that runs too often to log each call: a span measures with nanoTime and
+// its duration goes to a LatencyHistogram for its label, nothing is logged per call. Spans nest per
+// thread, a span started inside another is aggregated under "parent/child":
+//   try (Timings.Span request = timings.start("request")) {
+//       try (Timings.Span query = timings.start("db")) { ... }     // recorded as request/db
+//   }
+// startReporting() logs a count/p50/p99/max line per label on a schedule. Span objects are reused
+// per thread, so starting one allocates nothing once its label was seen; don't keep a span after
+// closing it, and close spans on the thread that started them.
+public final class Timings implements AutoCloseable {
+
+    private static final Timings GLOBAL = new Timings();
+
+    private final Node root = new Node("");
+    private final ThreadLocal<SpanStack> stacks = ThreadLocal.withInitial(SpanStack::new);
+    private ScheduledExecutorService reporter;
+
+    // A label under its parent span's label; the path is built once
+    private static final class Node {
+        final String path;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Map<String, Node> children = new ConcurrentHashMap<>();
+
+        Node(String path) {
+            this.path = path;
+        }
+    }
+
+    public static final class Span implements AutoCloseable {
+        private final SpanStack stack;
+        private final int depth;
+        private Node node;
+        private long startNanos;
+        private boolean open;
+
+        private Span(SpanStack stack, int depth) {
+            this.stack = stack;
+            this.depth = depth;
+        }
+
+        public String getPath() {
+            return node.path;
+        }
+
+        public long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        // Also closes spans started inside this one and still open
+        @Override
+        public void close() {
+            if (open) {
+                stack.closeTo(depth);
+            }
+        }
+    }
+
+    // The open spans of one thread, innermost last
+    private final class SpanStack {
+        private Span[] spans = new Span[8];
+        private int depth;
+
+        Span push(String label) {
+            Node parent = depth == 0 ? root : spans[depth - 1].node;
+            Node node = parent.children.get(label);
+            if (node == null) {
+                node = parent.children.computeIfAbsent(label,
+                        key -> new Node(parent == root ? key : parent.path + "/" + key));
+            }
+            if (depth == spans.length) {
+                spans = Arrays.copyOf(spans, depth * 2);
+            }
+            Span span = spans[depth];
+            if (span == null) {
+                span = new Span(this, depth);
+                spans[depth] = span;
+            }
+            depth++;
+            span.node = node;
+            span.open = true;
+            span.startNanos = System.nanoTime();
+            return span;
+        }
+
+        void closeTo(int target) {
+            long now = System.nanoTime();
+            while (depth > target) {
+                Span span = spans[--depth];
+                span.node.histogram.record(now - span.startNanos);
+                span.open = false;
+            }
+        }
+    }
+
+    public static Timings global() {
+        return GLOBAL;
+    }
+
+    // Starts a span; use with try-with-resources
+    public Span start(String label) {
+        return stacks.get().push(label);
+    }
+
+    public void time(String label, Runnable action) {
+        try (Span span = start(label)) {
+            action.run();
+        }
+    }
+
+    public <T> T time(String label, Supplier<T> action) {
+        try (Span span = start(label)) {
+            return action.get();
+        }
+    }
+
+    // Histograms by path, parents before their children and labels in alphabetical order
+    public Map<String, LatencyHistogram.Snapshot> snapshot() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+        for (Node node : nodes()) {
+            snapshots.put(node.path, node.histogram.snapshot());
+        }
+        return snapshots;
+    }
+
+    // e.g. "request/db count=1200 p50=3.2µs p99=18.4µs max=1.3ms", one line per label with spans
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshot().entrySet()) {
+            LatencyHistogram.Snapshot histogram = entry.getValue();
+            if (histogram.getCount() > 0) {
+                lines.add(entry.getKey()
+                        + " count=" + histogram.getCount()
+                        + " p50=" + LatencyHistogram.formatNanos(histogram.percentileNanos(0.5))
+                        + " p99=" + LatencyHistogram.formatNanos(histogram.percentileNanos(0.99))
+                        + " max=" + LatencyHistogram.formatNanos(histogram.getMaxNanos()));
+            }
+        }
+        return lines;
+    }
+
+    private List<Node> nodes() {
+        List<Node> nodes = new ArrayList<>();
+        addChildren(root, nodes);
+        return nodes;
+    }
+
+    private static void addChildren(Node parent, List<Node> nodes) {
+        List<String> labels = new ArrayList<>(parent.children.keySet());
+        labels.sort(null);
+        for (String label : labels) {
+            Node child = parent.children.get(label);
+            nodes.add(child);
+            addChildren(child, nodes);
+        }
+    }
+
+    // Clears the histograms; labels stay known
+    public void reset() {
+        for (Node node : nodes()) {
+            node.histogram.reset();
+        }
+    }
+
+    // Logs the summary to target every periodMillis; with resetAfterReport each one covers one period
+    public synchronized void startReporting(Logger target, long periodMillis, boolean resetAfterReport) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Report period must be positive.");
+        }
+        if (reporter != null) {
+            throw new IllegalStateException("Reporting already started.");
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timings-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            for (String line : summary()) {
+                target.log("Timing " + line);
+            }
+            if (resetAfterReport) {
+                reset();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdown();
+            reporter = null;
+        }
+    }
+}
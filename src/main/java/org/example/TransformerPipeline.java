@@ -0,0 +1,225 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+// A chain of message transforms applied as one pass where possible:
+//   TransformerPipeline.builder().leet().removeVowels().caesar(3).build()
+// Consecutive char transforms are fused: their combined result for every char below 256 is
+// precomputed into one lookup table, so the chain costs one table read per char. Transforms that
+// need the whole message (reverse, palindrome highlighting, arbitrary functions) run as buffered
+// passes between two reused per-thread StringBuilders. Only the final String is allocated.
+public final class TransformerPipeline implements Function<String, String> {
+
+    // Maps one char to another, or to DROP to remove it. Must be a pure function of the char,
+    // since results are precomputed when the pipeline is built.
+    @FunctionalInterface
+    public interface CharTransform {
+        int DROP = -1;
+
+        int apply(char c);
+    }
+
+    private static final int TABLE_SIZE = 256;
+    private static final int INITIAL_CAPACITY = 256;
+    // Same limit as MessageFormatter: don't let one huge message pin memory per thread
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder[]> BUFFERS = ThreadLocal.withInitial(
+            () -> new StringBuilder[]{new StringBuilder(INITIAL_CAPACITY), new StringBuilder(INITIAL_CAPACITY)});
+
+    private final Stage[] stages;
+
+    private TransformerPipeline(Stage[] stages) {
+        this.stages = stages;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String apply(String message) {
+        if (stages.length == 0) {
+            return message;
+        }
+        StringBuilder[] buffers = buffers();
+        CharSequence in = message;
+        int next = 0;
+        for (Stage stage : stages) {
+            StringBuilder out = buffers[next];
+            out.setLength(0);
+            stage.apply(in, out);
+            in = out;
+            next ^= 1;
+        }
+        return in.toString();
+    }
+
+    private static StringBuilder[] buffers() {
+        StringBuilder[] buffers = BUFFERS.get();
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i].capacity() > MAX_RETAINED_CAPACITY) {
+                buffers[i] = new StringBuilder(INITIAL_CAPACITY);
+            }
+        }
+        return buffers;
+    }
+
+    // Reads in and appends the transformed text to out; in and out are never the same buffer
+    private interface Stage {
+        void apply(CharSequence in, StringBuilder out);
+    }
+
+    // Several char transforms in a single loop, table lookup for chars below 256
+    private static final class FusedStage implements Stage {
+        private final CharTransform[] transforms;
+        private final int[] table = new int[TABLE_SIZE];
+
+        FusedStage(CharTransform[] transforms) {
+            this.transforms = transforms;
+            for (int c = 0; c < TABLE_SIZE; c++) {
+                table[c] = chain((char) c);
+            }
+        }
+
+        private int chain(char c) {
+            int result = c;
+            for (CharTransform transform : transforms) {
+                result = transform.apply((char) result);
+                if (result < 0) {
+                    return CharTransform.DROP;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void apply(CharSequence in, StringBuilder out) {
+            int length = in.length();
+            for (int i = 0; i < length; i++) {
+                char c = in.charAt(i);
+                int result = c < TABLE_SIZE ? table[c] : chain(c);
+                if (result >= 0) {
+                    out.append((char) result);
+                }
+            }
+        }
+    }
+
+    private static final class ReverseStage implements Stage {
+        @Override
+        public void apply(CharSequence in, StringBuilder out) {
+            // StringBuilder.reverse keeps surrogate pairs in order, like the original logInReverse
+            out.append(in).reverse();
+        }
+    }
+
+    private static final class PalindromeHighlightStage implements Stage {
+        private final Style style;
+
+        PalindromeHighlightStage(Style style) {
+            this.style = style;
+        }
+
+        @Override
+        public void apply(CharSequence in, StringBuilder out) {
+            PalindromeEngine.highlightWords(in, style.prefix(), style.suffix(), out);
+        }
+    }
+
+    private static final class FunctionStage implements Stage {
+        private final Function<String, String> function;
+
+        FunctionStage(Function<String, String> function) {
+            this.function = function;
+        }
+
+        @Override
+        public void apply(CharSequence in, StringBuilder out) {
+            // The function may run another pipeline on this thread, which reuses the same buffers,
+            // so take its result before touching out
+            String result = function.apply(in.toString());
+            out.setLength(0);
+            out.append(result);
+        }
+    }
+
+    public static final class Builder {
+        private final List<Stage> stages = new ArrayList<>();
+        private final List<CharTransform> pending = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder map(CharTransform transform) {
+            pending.add(Objects.requireNonNull(transform, "transform"));
+            return this;
+        }
+
+        // o -> 0, s -> 5, as in logInLeetSpeak
+        public Builder leet() {
+            return map(c -> c == 'o' ? '0' : c == 's' ? '5' : c);
+        }
+
+        public Builder removeVowels() {
+            return map(c -> "aeiouAEIOU".indexOf(c) >= 0 ? CharTransform.DROP : c);
+        }
+
+        public Builder rot13() {
+            return caesar(13);
+        }
+
+        // Shifts ASCII letters, keeping case; a negative shift moves backwards
+        public Builder caesar(int shift) {
+            CaesarCipher cipher = CaesarCipher.of(shift);
+            return map(cipher::encode);
+        }
+
+        public Builder reverse() {
+            return buffered(new ReverseStage());
+        }
+
+        // Wraps words whose letters read the same both ways in style
+        public Builder highlightPalindromes(Style style) {
+            return buffered(new PalindromeHighlightStage(Objects.requireNonNull(style, "style")));
+        }
+
+        // Another pipeline is inlined, so its leading char transforms fuse with ours
+        public Builder then(Function<String, String> function) {
+            if (function instanceof TransformerPipeline) {
+                for (Stage stage : ((TransformerPipeline) function).stages) {
+                    if (stage instanceof FusedStage) {
+                        for (CharTransform transform : ((FusedStage) stage).transforms) {
+                            map(transform);
+                        }
+                    } else {
+                        buffered(stage);
+                    }
+                }
+                return this;
+            }
+            return buffered(new FunctionStage(Objects.requireNonNull(function, "function")));
+        }
+
+        private Builder buffered(Stage stage) {
+            fusePending();
+            stages.add(stage);
+            return this;
+        }
+
+        private void fusePending() {
+            if (!pending.isEmpty()) {
+                stages.add(new FusedStage(pending.toArray(new CharTransform[0])));
+                pending.clear();
+            }
+        }
+
+        public TransformerPipeline build() {
+            fusePending();
+            return new TransformerPipeline(stages.toArray(new Stage[0]));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Phrase translation for logInLanguage, one dictionary per language code. A dictionary's source
+// phrases are compiled into one case-insensitive Aho-Corasick automaton and its translations are
+// packed into a single String with offsets, so a message is scanned once and every whole-word
+// phrase in it is replaced, the longest one where phrases overlap ("thank you" over "you"). A
+// translation follows the case of the text it replaces only roughly: all capitals stay all
+// capitals (HELLO -> HOLA), otherwise just the first letter's case is carried over (Hello -> Hola,
+// hello -> hola) and the rest is the dictionary's. Each language keeps a bounded LRU cache of
+// translated messages, since the same templates come back over and over.
+//
+// load() reads a directory of "<language>.tsv" files with one "phrase<TAB>translation" per line;
+// blank lines and lines starting with # are skipped and a phrase listed twice keeps its last
+// translation. Translators are immutable apart from their caches; reload() swaps the shared one.
+public final class Translator {
+
+    // Set -Dlogger.translations=directory to start with those dictionaries instead of the built-in ones
+    public static final String DICTIONARY_DIR_PROPERTY = "logger.translations";
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+    // Longer messages are translated every time rather than pinned in the cache
+    static final int MAX_CACHED_LENGTH = 1024;
+
+    public static final Translator BUILT_IN = of(builtInDictionaries(), DEFAULT_CACHE_SIZE);
+
+    private static volatile Translator shared = createShared();
+
+    private static final ThreadLocal<WordMatches> MATCHES = ThreadLocal.withInitial(WordMatches::new);
+
+    private final Map<String, Dictionary> dictionaries;
+
+    private static final class Dictionary {
+        // Sorted longest first, as WordMatches needs
+        private final AhoCorasick phrases;
+        private final String translations;
+        private final int[] offsets;
+        private final LruCache<String, String> cache;
+
+        Dictionary(Map<String, String> phraseTranslations, int cacheSize) {
+            List<Map.Entry<String, String>> entries = new ArrayList<>(phraseTranslations.entrySet());
+            entries.sort((a, b) -> Integer.compare(b.getKey().length(), a.getKey().length()));
+            String[] sources = new String[entries.size()];
+            StringBuilder packed = new StringBuilder();
+            this.offsets = new int[entries.size() + 1];
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = entries.get(i).getKey();
+                packed.append(entries.get(i).getValue());
+                offsets[i + 1] = packed.length();
+            }
+            this.phrases = sources.length == 0 ? null : new AhoCorasick(Arrays.asList(sources), true);
+            this.translations = packed.toString();
+            this.cache = new LruCache<>(cacheSize);
+        }
+
+        String translate(String message) {
+            String translated = cache.get(message);
+            if (translated != null) {
+                return translated;
+            }
+            translated = replacePhrases(message);
+            if (message.length() <= MAX_CACHED_LENGTH) {
+                cache.put(message, translated);
+            }
+            return translated;
+        }
+
+        private String replacePhrases(String message) {
+            WordMatches matches = MATCHES.get();
+            int count = phrases == null ? 0 : matches.find(phrases, message);
+            if (count == 0) {
+                return message;
+            }
+            StringBuilder out = new StringBuilder(message.length() + 16);
+            int lastIndex = 0;
+            for (int i = 0; i < count; i++) {
+                int start = matches.start(i);
+                int phrase = matches.pattern(i);
+                out.append(message, lastIndex, start);
+                int first = out.length();
+                out.append(translations, offsets[phrase], offsets[phrase + 1]);
+                if (isAllUpperCase(message, start, matches.end(i))) {
+                    for (int c = first; c < out.length(); c++) {
+                        out.setCharAt(c, Character.toUpperCase(out.charAt(c)));
+                    }
+                } else if (out.length() > first) {
+                    char c = out.charAt(first);
+                    out.setCharAt(first, Character.isUpperCase(message.charAt(start))
+                            ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                }
+                lastIndex = matches.end(i);
+            }
+            return out.append(message, lastIndex, message.length()).toString();
+        }
+
+        // At least two letters and no lower case ones, so a lone "I" or "A" still counts as capitalized
+        private static boolean isAllUpperCase(String message, int start, int end) {
+            int letters = 0;
+            for (int i = start; i < end; i++) {
+                char c = message.charAt(i);
+                if (Character.isLowerCase(c)) {
+                    return false;
+                }
+                if (Character.isLetter(c)) {
+                    letters++;
+                }
+            }
+            return letters > 1;
+        }
+    }
+
+    private Translator(Map<String, Dictionary> dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    // Language code -> (phrase -> translation)
+    public static Translator of(Map<String, Map<String, String>> phrasesByLanguage, int cacheSize) {
+        Map<String, Dictionary> dictionaries = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> language : phrasesByLanguage.entrySet()) {
+            Map<String, String> normalized = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : language.getValue().entrySet()) {
+                String phrase = entry.getKey().trim();
+                if (phrase.isEmpty()) {
+                    throw new IllegalArgumentException("Phrases must not be empty.");
+                }
+                normalized.put(phrase.toLowerCase(Locale.ROOT), entry.getValue());
+            }
+            dictionaries.put(language.getKey(), new Dictionary(normalized, cacheSize));
+        }
+        return new Translator(Map.copyOf(dictionaries));
+    }
+
+    public static Translator load(Path directory) throws IOException {
+        return load(directory, DEFAULT_CACHE_SIZE);
+    }
+
+    public static Translator load(Path directory, int cacheSize) throws IOException {
+        Map<String, Map<String, String>> phrasesByLanguage = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tsv")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                phrasesByLanguage.put(name.substring(0, name.length() - ".tsv".length()), loadDictionary(file));
+            }
+        }
+        return of(phrasesByLanguage, cacheSize);
+    }
+
+    private static Map<String, String> loadDictionary(Path file) throws IOException {
+        Map<String, String> phrases = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                String phrase = tab < 0 ? "" : line.substring(0, tab).trim();
+                if (phrase.isEmpty()) {
+                    throw new IOException("Invalid dictionary line " + lineNumber + " in " + file + ": " + line);
+                }
+                phrases.put(phrase, line.substring(tab + 1).trim());
+            }
+        }
+        return phrases;
+    }
+
+    public static Translator shared() {
+        return shared;
+    }
+
+    public static void install(Translator translator) {
+        shared = translator;
+    }
+
+    // Loads directory and makes it the shared translator; on failure the current one stays
+    public static Translator reload(Path directory) throws IOException {
+        Translator translator = load(directory);
+        shared = translator;
+        return translator;
+    }
+
+    private static Translator createShared() {
+        String directory = System.getProperty(DICTIONARY_DIR_PROPERTY);
+        if (directory == null) {
+            return BUILT_IN;
+        }
+        try {
+            return load(Paths.get(directory));
+        } catch (IOException e) {
+            System.err.println("Failed to load translations: " + e.getMessage());
+            return BUILT_IN;
+        }
+    }
+
+    // The phrases translate() always had, with Spanish and French kept apart
+    private static Map<String, Map<String, String>> builtInDictionaries() {
+        return Map.of(
+                "es", Map.of("Hello", "Hola", "Goodbye", "Adios", "Yes", "Sí", "No", "No", "Thank you", "Gracias"),
+                "fr", Map.of("Hello", "Bonjour", "Goodbye", "Au revoir", "Yes", "Oui", "No", "Non", "Thank you", "Merci"));
+    }
+
+    public boolean supports(String languageCode) {
+        return dictionaries.containsKey(languageCode);
+    }
+
+    public Set<String> languages() {
+        return dictionaries.keySet();
+    }
+
+    // The message with every known phrase translated, or null if there is no dictionary for languageCode
+    public String translate(String message, String languageCode) {
+        Dictionary dictionary = dictionaries.get(languageCode);
+        return dictionary == null ? null : dictionary.translate(message);
+    }
+}
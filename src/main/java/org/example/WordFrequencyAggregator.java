@@ -0,0 +1,340 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Word counts across any number of log lines in fixed memory. Every word goes into a Count-Min
+// Sketch (depth rows of width counters; the estimate is the smallest of a word's counters, which
+// can overcount by about e/width of all words seen but never undercounts). The topK words with
+// the highest estimates are kept by name. A word's String is only created when it enters the top K;
+// counting otherwise works on the chars in a per-thread buffer.
+// Words are runs of letters, digits and inner apostrophes, compared in lower case.
+public class WordFrequencyAggregator implements AutoCloseable {
+
+    public static final int DEFAULT_WIDTH = 8192;
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int DEFAULT_TOP_K = 20;
+    private static final int INITIAL_TOKEN_CHARS = 32;
+    // Token buffers that grew past this are replaced so one huge word doesn't pin memory per thread
+    private static final int MAX_RETAINED_TOKEN_CHARS = 1024;
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int mask;
+    private final int depth;
+    private final LongAdder totalWords = new LongAdder();
+    private final ThreadLocal<char[]> tokens = ThreadLocal.withInitial(() -> new char[INITIAL_TOKEN_CHARS]);
+
+    // Top K, guarded by this; admissionThreshold lets most words skip the lock
+    private final String[] topWords;
+    private final long[] topHashes;
+    private final long[] topCounts;
+    private int topSize;
+    private volatile long admissionThreshold;
+
+    private ScheduledExecutorService reporter;
+
+    public WordFrequencyAggregator() {
+        this(DEFAULT_WIDTH, DEFAULT_DEPTH, DEFAULT_TOP_K);
+    }
+
+    // width is rounded up to a power of two
+    public WordFrequencyAggregator(int width, int depth, int topK) {
+        if (width <= 0 || depth <= 0 || topK <= 0) {
+            throw new IllegalArgumentException("Width, depth and top K must be positive.");
+        }
+        if (width > 1 << 24 || (long) width * depth > 1 << 26) {
+            throw new IllegalArgumentException("Sketch too large: " + width + " x " + depth);
+        }
+        this.width = Integer.bitCount(width) == 1 ? width : Integer.highestOneBit(width) << 1;
+        this.mask = this.width - 1;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(this.width * depth);
+        this.topWords = new String[topK];
+        this.topHashes = new long[topK];
+        this.topCounts = new long[topK];
+    }
+
+    // A logger that counts the words of every message and then passes the call on to delegate
+    // unchanged, so a JSON or binary sink still gets its events and levels. Only the message is
+    // counted: not the level name, category, context or color codes the sink adds around it.
+    public Logger attach(Logger delegate) {
+        return new CountingLogger(this, delegate);
+    }
+
+    private static final class CountingLogger implements Logger {
+        private final WordFrequencyAggregator aggregator;
+        private final Logger delegate;
+
+        CountingLogger(WordFrequencyAggregator aggregator, Logger delegate) {
+            this.aggregator = aggregator;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int getLevel() {
+            return delegate.getLevel();
+        }
+
+        @Override
+        public void log(String message) {
+            aggregator.record(message);
+            delegate.log(message);
+        }
+
+        @Override
+        public void log(String message, String color) {
+            aggregator.record(message);
+            delegate.log(message, color);
+        }
+
+        @Override
+        public void logWithStyle(String message, Style style) {
+            aggregator.record(message);
+            delegate.logWithStyle(message, style);
+        }
+
+        @Override
+        public void log(LogEvent event) {
+            StringBuilder message = MessageFormatter.buffer();
+            event.appendMessage(message);
+            aggregator.record(message);
+            delegate.log(event);
+        }
+
+        @Override
+        public void logAtLevel(int level, String message) {
+            aggregator.record(message);
+            delegate.logAtLevel(level, message);
+        }
+
+        // The template calls count the filled-in message, formatted into the per-thread buffer
+        @Override
+        public void logAtLevel(int level, String template, long arg) {
+            StringBuilder message = MessageFormatter.buffer();
+            MessageFormatter.format(message, template, arg);
+            aggregator.record(message);
+            delegate.logAtLevel(level, template, arg);
+        }
+
+        @Override
+        public void logAtLevel(int level, String template, double arg) {
+            StringBuilder message = MessageFormatter.buffer();
+            MessageFormatter.format(message, template, arg);
+            aggregator.record(message);
+            delegate.logAtLevel(level, template, arg);
+        }
+
+        @Override
+        public void logAtLevel(int level, String template, String arg) {
+            StringBuilder message = MessageFormatter.buffer();
+            MessageFormatter.format(message, template, arg);
+            aggregator.record(message);
+            delegate.logAtLevel(level, template, arg);
+        }
+
+        // Data is not message text, so it goes to the delegate uncounted
+        @Override
+        public void logAsJson(Object data) {
+            delegate.logAsJson(data);
+        }
+    }
+
+    public void record(CharSequence text) {
+        char[] token = tokens.get();
+        if (token.length > MAX_RETAINED_TOKEN_CHARS) {
+            token = new char[INITIAL_TOKEN_CHARS];
+            tokens.set(token);
+        }
+        int length = 0;
+        long hash = 0;
+        int end = text.length();
+        for (int i = 0; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            // An apostrophe only counts inside a word: "don't" but not "'quoted'"
+            boolean wordChar = Character.isLetterOrDigit(c)
+                    || (c == '\'' && length > 0 && i + 1 < end && Character.isLetterOrDigit(text.charAt(i + 1)));
+            if (wordChar) {
+                c = Character.toLowerCase(c);
+                if (length == token.length) {
+                    token = Arrays.copyOf(token, length * 2);
+                    tokens.set(token);
+                }
+                token[length++] = c;
+                hash = hash * 31 + c;
+            } else if (length > 0) {
+                add(token, length, mix(hash));
+                length = 0;
+                hash = 0;
+            }
+        }
+    }
+
+    private void add(char[] token, int length, long hash) {
+        totalWords.increment();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        if (estimate > admissionThreshold) {
+            offer(token, length, hash, estimate);
+        }
+    }
+
+    private synchronized void offer(char[] token, int length, long hash, long estimate) {
+        for (int i = 0; i < topSize; i++) {
+            if (topHashes[i] == hash && sameWord(topWords[i], token, length)) {
+                topCounts[i] = Math.max(topCounts[i], estimate);
+                updateThreshold();
+                return;
+            }
+        }
+        if (topSize < topWords.length) {
+            put(topSize++, token, length, hash, estimate);
+        } else {
+            int min = minIndex();
+            if (estimate <= topCounts[min]) {
+                return;
+            }
+            put(min, token, length, hash, estimate);
+        }
+        updateThreshold();
+    }
+
+    private void put(int slot, char[] token, int length, long hash, long estimate) {
+        topWords[slot] = new String(token, 0, length);
+        topHashes[slot] = hash;
+        topCounts[slot] = estimate;
+    }
+
+    private void updateThreshold() {
+        admissionThreshold = topSize < topWords.length ? 0 : topCounts[minIndex()];
+    }
+
+    private int minIndex() {
+        int min = 0;
+        for (int i = 1; i < topSize; i++) {
+            if (topCounts[i] < topCounts[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    private static boolean sameWord(String word, char[] token, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != token[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // murmur3 fmix64, spreads the polynomial hash over all 64 bits
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // Estimated count for any word, whether it is in the top K or not
+    public long estimate(String word) {
+        long hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = hash * 31 + Character.toLowerCase(word.charAt(i));
+        }
+        hash = mix(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    public long getTotalWords() {
+        return totalWords.sum();
+    }
+
+    // The current top K, highest count first
+    public synchronized List<Map.Entry<String, Long>> topWords() {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(topWords[i], topCounts[i]));
+        }
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return top;
+    }
+
+    // "word: count, ..." like logWordFrequency, highest count first
+    public String formatTopWords() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Long> entry : topWords()) {
+            if (out.length() > 0) {
+                out.append(", ");
+            }
+            out.append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return out.toString();
+    }
+
+    // Starts over, e.g. to report per interval instead of since startup
+    public synchronized void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        totalWords.reset();
+        for (int i = 0; i < topSize; i++) {
+            topWords[i] = null;
+        }
+        topSize = 0;
+        admissionThreshold = 0;
+    }
+
+    // Logs the top words to target every periodMillis; with resetAfterReport each report covers one period
+    public synchronized void startReporting(Logger target, long periodMillis, boolean resetAfterReport) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Report period must be positive.");
+        }
+        if (reporter != null) {
+            throw new IllegalStateException("Reporting already started.");
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "word-frequency-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            target.log("Top words (" + getTotalWords() + " total): " + formatTopWords());
+            if (resetAfterReport) {
+                reset();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdown();
+            reporter = null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example;
+
+import java.util.Arrays;
+
+// The whole-word, non-overlapping matches of an AhoCorasick automaton in one text, for the
+// dictionary lookups (sentiment terms, translation phrases). A match counts only if no letter or
+// digit touches either end; where matches overlap the leftmost wins, then the longest, provided
+// the automaton's patterns are ordered longest first. Reusable, not thread-safe.
+final class WordMatches implements AhoCorasick.MatchHandler {
+
+    private AhoCorasick automaton;
+    private CharSequence text;
+    // (start << 32 | pattern)
+    private long[] keys = new long[16];
+    private int count;
+
+    // Returns the number of matches, available in order of start through start(i), end(i), pattern(i)
+    int find(AhoCorasick automaton, CharSequence text) {
+        this.automaton = automaton;
+        this.text = text;
+        this.count = 0;
+        automaton.search(text, this);
+        this.text = null;
+        Arrays.sort(keys, 0, count);
+        // Same start: the lower pattern index, the longer one, comes first
+        int kept = 0;
+        int lastEnd = 0;
+        for (int i = 0; i < count; i++) {
+            int start = (int) (keys[i] >>> 32);
+            if (start >= lastEnd) {
+                keys[kept++] = keys[i];
+                lastEnd = start + automaton.pattern((int) keys[i]).length();
+            }
+        }
+        count = kept;
+        return count;
+    }
+
+    @Override
+    public boolean onMatch(int pattern, int start, int end) {
+        if (isWordChar(start - 1) || isWordChar(end)) {
+            return true;
+        }
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+        }
+        keys[count++] = (long) start << 32 | pattern;
+        return true;
+    }
+
+    private boolean isWordChar(int index) {
+        return index >= 0 && index < text.length() && Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    int start(int match) {
+        return (int) (keys[match] >>> 32);
+    }
+
+    int end(int match) {
+        return start(match) + automaton.pattern(pattern(match)).length();
+    }
+
+    int pattern(int match) {
+        return (int) keys[match];
+    }
+}
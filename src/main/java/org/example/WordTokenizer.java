@@ -0,0 +1,115 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Splits text into whitespace-separated words without creating any Strings: each word is a span
+// [start(), end()) of the original CharSequence. Whitespace is what \s matches (space, \t, \n,
+// \u000B, \f, \r), so the words are the ones split("\\s+") used to produce, minus the empty
+// leading one. A tokenizer is reusable but not thread-safe:
+//   WordTokenizer words = new WordTokenizer().reset(message);
+//   while (words.next()) { out.append(message, words.start(), words.end()); }
+public final class WordTokenizer {
+
+    private CharSequence text = "";
+    private int position;
+    private int start;
+    private int end;
+    // Filled by collect()
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+
+    public WordTokenizer reset(CharSequence text) {
+        this.text = text;
+        this.position = 0;
+        this.start = 0;
+        this.end = 0;
+        this.count = 0;
+        return this;
+    }
+
+    // Moves to the next word; false once there are no more
+    public boolean next() {
+        int length = text.length();
+        int i = position;
+        while (i < length && isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            position = length;
+            return false;
+        }
+        start = i;
+        while (i < length && !isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        end = i;
+        position = i;
+        return true;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public char charAt(int index) {
+        return text.charAt(start + index);
+    }
+
+    public boolean wordEquals(String word) {
+        int length = end - start;
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Reads the remaining words into reusable span arrays, for transforms that reorder words
+    public int collect() {
+        while (next()) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+        return count;
+    }
+
+    public int start(int word) {
+        return starts[word];
+    }
+
+    public int end(int word) {
+        return ends[word];
+    }
+
+    // Swaps two collected words
+    public void swap(int a, int b) {
+        int s = starts[a];
+        int e = ends[a];
+        starts[a] = starts[b];
+        ends[a] = ends[b];
+        starts[b] = s;
+        ends[b] = e;
+    }
+
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
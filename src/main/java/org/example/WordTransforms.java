@@ -0,0 +1,206 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// The word-level transforms behind logInPigLatin, logWithConditionalReversedWords and friends.
+// Words come from a per-thread WordTokenizer as spans over the message and are written straight
+// into the caller's StringBuilder, so nothing is allocated per word. Output matches what the
+// split()-based versions produced: words joined by single spaces (pig latin keeps the original
+// whitespace between words instead).
+final class WordTransforms {
+
+    private static final String[] SYNONYM_WORDS = {"happy", "sad"};
+    private static final String[] SYNONYM_REPLACEMENTS = {"content", "unhappy"};
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        final WordTokenizer words = new WordTokenizer();
+        // (length << 32 | word index) sort keys for the length scramble
+        long[] keys = new long[16];
+    }
+
+    private WordTransforms() {
+    }
+
+    private static WordTokenizer words(CharSequence text) {
+        return SCRATCH.get().words.reset(text);
+    }
+
+    private static void separate(StringBuilder out, int mark) {
+        if (out.length() > mark) {
+            out.append(' ');
+        }
+    }
+
+    // Words of letters only become pig latin; everything else, whitespace included, is kept.
+    // Leading and trailing whitespace is trimmed like the original's trim().
+    static void pigLatin(CharSequence text, StringBuilder out) {
+        int from = 0;
+        int to = text.length();
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (WordTokenizer.isWhitespace(c)) {
+                out.append(c);
+                i++;
+                continue;
+            }
+            int start = i;
+            boolean letters = true;
+            while (i < to && !WordTokenizer.isWhitespace(text.charAt(i))) {
+                letters &= isAsciiLetter(text.charAt(i));
+                i++;
+            }
+            if (letters) {
+                appendPigLatin(text, start, i, out);
+            } else {
+                out.append(text, start, i);
+            }
+        }
+    }
+
+    private static void appendPigLatin(CharSequence text, int start, int end, StringBuilder out) {
+        char first = text.charAt(start);
+        if (isVowel(first)) {
+            out.append(text, start, end).append("way");
+            return;
+        }
+        int split = start;
+        while (split < end && !isVowel(text.charAt(split))) {
+            split++;
+        }
+        int mark = out.length();
+        out.append(text, split, end).append(text, start, split).append("ay");
+        // Capitalized words stay capitalized: first letter upper case, the rest lower case
+        if (Character.isUpperCase(first)) {
+            out.setCharAt(mark, Character.toUpperCase(out.charAt(mark)));
+            for (int i = mark + 1; i < out.length(); i++) {
+                out.setCharAt(i, Character.toLowerCase(out.charAt(i)));
+            }
+        }
+    }
+
+    // Words longer than lengthThreshold are reversed
+    static void reverseLongWords(CharSequence text, int lengthThreshold, StringBuilder out) {
+        WordTokenizer words = words(text);
+        int mark = out.length();
+        while (words.next()) {
+            separate(out, mark);
+            if (words.length() > lengthThreshold) {
+                appendReversed(text, words.start(), words.end(), out);
+            } else {
+                out.append(text, words.start(), words.end());
+            }
+        }
+    }
+
+    // Like StringBuilder.reverse, surrogate pairs keep their order
+    private static void appendReversed(CharSequence text, int start, int end, StringBuilder out) {
+        for (int i = end - 1; i >= start; i--) {
+            char c = text.charAt(i);
+            if (Character.isLowSurrogate(c) && i > start && Character.isHighSurrogate(text.charAt(i - 1))) {
+                out.append(text.charAt(i - 1)).append(c);
+                i--;
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    // Words longer than two chars keep their first and last char, the ones between are shuffled
+    static void scrambleMiddles(CharSequence text, Random random, StringBuilder out) {
+        WordTokenizer words = words(text);
+        int mark = out.length();
+        while (words.next()) {
+            separate(out, mark);
+            int at = out.length();
+            out.append(text, words.start(), words.end());
+            // Fisher-Yates over out[at + 1, at + length - 1)
+            for (int i = words.length() - 2; i > 1; i--) {
+                int j = 1 + random.nextInt(i);
+                char swap = out.charAt(at + i);
+                out.setCharAt(at + i, out.charAt(at + j));
+                out.setCharAt(at + j, swap);
+            }
+        }
+    }
+
+    static void synonyms(CharSequence text, StringBuilder out) {
+        WordTokenizer words = words(text);
+        int mark = out.length();
+        words:
+        while (words.next()) {
+            separate(out, mark);
+            for (int i = 0; i < SYNONYM_WORDS.length; i++) {
+                if (words.wordEquals(SYNONYM_WORDS[i])) {
+                    out.append(SYNONYM_REPLACEMENTS[i]);
+                    continue words;
+                }
+            }
+            out.append(text, words.start(), words.end());
+        }
+    }
+
+    // Keeps only words of two or more chars that read the same backwards
+    static void palindromeWords(CharSequence text, StringBuilder out) {
+        WordTokenizer words = words(text);
+        int mark = out.length();
+        while (words.next()) {
+            if (PalindromeEngine.isPalindrome(text, words.start(), words.end())) {
+                separate(out, mark);
+                out.append(text, words.start(), words.end());
+            }
+        }
+    }
+
+    // Words ordered by length, shortest first, shuffled among words of the same length
+    static void lengthScramble(CharSequence text, Random random, StringBuilder out) {
+        Scratch scratch = SCRATCH.get();
+        WordTokenizer words = scratch.words.reset(text);
+        int count = words.collect();
+        if (scratch.keys.length < count) {
+            scratch.keys = new long[Math.max(count, scratch.keys.length * 2)];
+        }
+        long[] keys = scratch.keys;
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) (words.end(i) - words.start(i)) << 32) | i;
+        }
+        Arrays.sort(keys, 0, count);
+
+        int groupStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || (keys[i] >>> 32) != (keys[groupStart] >>> 32)) {
+                for (int j = i - 1; j > groupStart; j--) {
+                    int k = groupStart + random.nextInt(j - groupStart + 1);
+                    long swap = keys[j];
+                    keys[j] = keys[k];
+                    keys[k] = swap;
+                }
+                groupStart = i;
+            }
+        }
+
+        int mark = out.length();
+        for (int i = 0; i < count; i++) {
+            int word = (int) keys[i];
+            separate(out, mark);
+            out.append(text, words.start(word), words.end(word));
+        }
+    }
+
+    private static boolean isVowel(char c) {
+        return "aeiouAEIOU".indexOf(c) != -1;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
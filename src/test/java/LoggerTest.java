@@ -1,10 +1,43 @@
+import org.example.AsyncFileLogger;
+import org.example.BatchedConsoleLogger;
+import org.example.BinaryEventDecoder;
+import org.example.BinaryFileLogger;
+import org.example.CaesarCipher;
 import org.example.ColorCodes;
 import org.example.Logger;
+import org.example.LoggerMetrics;
+import org.example.LoggerRegistry;
+import org.example.MappedFileLogger;
+import org.example.MarkovModel;
+import org.example.MorseCode;
+import org.example.RollingFileLogger;
+import org.example.SentimentLexicon;
+import org.example.Style;
+import org.example.TimestampRenderer;
+import org.example.Timings;
+import org.example.TransformerPipeline;
+import org.example.WordFrequencyAggregator;
 import org.example.Emoji;
-
+import org.example.FilteringLogger;
+import org.example.InstrumentedLogger;
+import org.example.JsonLinesLogger;
+import org.example.LevelBasedLogger;
+import org.example.LogContext;
+import org.example.LogRouter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -23,10 +56,26 @@ public class LoggerTest {
         Logger caesarLogger = Logger.getCaesarCipherLogger(3);
         caesarLogger.log("attack at dawn");
 
+        // Fused transformer pipeline: the char transforms run as one pass, reverse as a second one
+        TransformerPipeline pipeline = TransformerPipeline.builder()
+                .leet()
+                .removeVowels()
+                .caesar(3)
+                .reverse()
+                .build();
+        logger.logWithTransformation(pipeline, "Transformers assemble");
+        logger.logWithTransformation(TransformerPipeline.builder()
+                .highlightPalindromes(Style.of(ColorCodes.CYAN))
+                .build(), "Wow, the kayak is at noon");
+
         // Colored and Styled Logging
         Logger styledLogger = Logger.getStyledLogger(ColorCodes.GREEN, ColorCodes.BLUE_BG, ColorCodes.BOLD);
         styledLogger.log("This is a bold green message on a blue background");
 
+        // Precomputed style, escape codes are dropped automatically when output is piped
+        Style warningStyle = Style.of(ColorCodes.YELLOW, ColorCodes.BLACK_BG, ColorCodes.UNDERLINE);
+        logger.logWithStyle("This is an underlined yellow message on black", warningStyle);
+
         // Using Function for message transformation
         Function<String, String> transformation = message -> message.replace("Hello", "Hi");
         Logger transformationLogger = (message) -> System.out.println(transformation.apply(message));
@@ -65,6 +114,8 @@ public class LoggerTest {
         logger.logInLanguage("Goodbye", "es");
         logger.logInLanguage("Unknown", "fr");
         logger.logInLanguage("Hello", "de");
+        logger.logInLanguage("Hello", "fr");
+        logger.logInLanguage("Thank you for waiting. Goodbye!", "es");
 
         // Sentiment-Based Logging
         logger.logWithSentimentHighlight("This is a fantastic day!");
@@ -72,6 +123,19 @@ public class LoggerTest {
         logger.logWithSentimentHighlight("This is just a normal message.");
         logger.logWithSentimentHighlight("bad, good");
 
+        // A lexicon file with phrases and weights; the longer "not good" wins over "good"
+        try {
+            Path lexiconFile = Files.createTempFile("sentiment", ".tsv");
+            Files.write(lexiconFile, List.of("# term<TAB>weight", "good\t1", "not good\t-1.5",
+                    "outage\t-2", "back to normal\t1.5"));
+            SentimentLexicon.reload(lexiconFile);
+            logger.logWithSentimentHighlight("Not good: outage in eu-west, service back to normal at 14:02");
+            Files.delete(lexiconFile);
+        } catch (IOException e) {
+            System.err.println("Failed to load sentiment lexicon: " + e.getMessage());
+        }
+        SentimentLexicon.install(SentimentLexicon.BUILT_IN);
+
         Map<String, Object> logData = new HashMap<>();
         logData.put("message", "Hello world!");
         logData.put("level", "INFO");
@@ -101,11 +165,29 @@ public class LoggerTest {
         Logger fileLogger = Logger.getFileLogger("log.txt");
         fileLogger.log("This is a file-based log message.");
 
+        // Async File-Based Logger
+        try (AsyncFileLogger asyncFileLogger = Logger.getAsyncFileLogger("log.txt")) {
+            asyncFileLogger.log("This is an async file-based log message.");
+        }
+
+        // Memory-Mapped File Logger
+        try (MappedFileLogger mappedFileLogger = Logger.getMappedFileLogger("log.txt")) {
+            mappedFileLogger.log("This is a memory-mapped file log message.");
+        }
+
+        // Rolling File Logger (10 MB segments, daily, keep 7 archives)
+        try (RollingFileLogger rollingFileLogger = Logger.getRollingFileLogger("log.txt",
+                10 * 1024 * 1024, Duration.ofDays(1), 7, 0)) {
+            rollingFileLogger.log("This is a rolling file log message.");
+        }
+
         // Log Categorization
         Logger categorizedLogger = Logger.getDefaultLogger();
         categorizedLogger.logWithCategory("Unauthorized access attempt detected", "SECURITY");
 
         logger.logAndHighlightPalindromes("Radar detected a level of civic level responsibility", ColorCodes.RED);
+        logger.logLongestPalindromes("Ticket ABC-1221-CBA reopened", ColorCodes.RED);
+        logger.logLongestPalindromes("abab", ColorCodes.RED);  // "aba" and "bab" overlap: only "aba" is highlighted
 
         // Testing Base64 Encoding
         logger.logBase64Encoded("Hello world!"); // SGVsbG8gd29ybGQh
@@ -116,6 +198,23 @@ public class LoggerTest {
         Logger mlogger = message -> System.out.println("Log: " + message);
         mlogger.log("Hello World");
         mlogger.logInMorseCode("Hello World");
+        mlogger.logInMorseCode("Hi there, #1!");
+
+        // Both codecs are reversible
+        String morse = MorseCode.encode("SOS at dawn");
+        logger.log(morse + " -> " + MorseCode.decode(morse));
+        String secret = CaesarCipher.of(3).encode("attack at dawn");
+        logger.log(secret + " -> " + CaesarCipher.of(3).decode(secret));
+        ByteBuffer morseBytes = ByteBuffer.allocate(64);
+        MorseCode.encode("hello world", 0, morseBytes);
+        morseBytes.flip();
+        try {
+            StringBuilder decoded = new StringBuilder();
+            MorseCode.decode(morseBytes, decoded);
+            logger.log("Decoded from bytes: " + decoded);
+        } catch (IOException e) {
+            System.err.println("Failed to decode Morse bytes: " + e.getMessage());
+        }
 
         logger.logInPigLatin("hello world");
         logger.logInPigLatin("This is an apple");
@@ -134,6 +233,16 @@ public class LoggerTest {
         System.out.println("Testing Word Frequency:");
         logger.logWordFrequency("hello world hello");
 
+        // Counts across all lines that pass through the attached logger, in bounded memory
+        try (WordFrequencyAggregator aggregator = new WordFrequencyAggregator(1024, 4, 5)) {
+            Logger countingLogger = aggregator.attach(logger);
+            countingLogger.log("Cache miss for user 12345");
+            countingLogger.log("Cache miss for user 67890");
+            countingLogger.info("Cache hit for user 12345");  // Counted without the "INFO:" prefix
+            countingLogger.info("Cache hit for user {}", 67890);
+            System.out.println("Top words (" + aggregator.getTotalWords() + " total): " + aggregator.formatTopWords());
+        }
+
         // Test Word Length Scrambler
         logger.logWithLengthScrambledWords("I love programming in Java");
         logger.logWithLengthScrambledWords("The quick brown fox");
@@ -145,6 +254,31 @@ public class LoggerTest {
 
         logger.logWithMarkovChainTransformation("the quick brown fox jumps over the lazy dog");
         logger.logWithMarkovChainTransformation("error");
+
+        // A saved model loads back with the same counts, so the same seed generates the same text
+        MarkovModel markovModel = new MarkovModel();
+        markovModel.learn("the cat sat on the mat and the cat ran off".split(" "));
+        String markovFile = "markov.bin";
+        try {
+            markovModel.save(Paths.get(markovFile));
+            MarkovModel loadedModel = new MarkovModel();
+            loadedModel.load(Paths.get(markovFile));
+            Files.delete(Paths.get(markovFile));
+            String generated = markovModel.generate("the", 8, new Random(42));
+            String regenerated = loadedModel.generate("the", 8, new Random(42));
+            System.out.println("Generated: " + generated + " / after reload: " + regenerated
+                    + " (same: " + generated.equals(regenerated) + ")");
+        } catch (IOException e) {
+            System.err.println("Failed to save or load Markov model: " + e.getMessage());
+        }
+
+        // With room for 4 words, learning 2 new ones evicts 2 of the old ones and their counts
+        MarkovModel smallModel = new MarkovModel(4);
+        smallModel.learn("alpha beta gamma delta".split(" "));
+        smallModel.learn("epsilon zeta".split(" "));
+        System.out.println("Words kept: " + smallModel.size() + ", alpha -> beta count: "
+                + smallModel.transitionCount("alpha", "beta") + ", epsilon -> zeta count: "
+                + smallModel.transitionCount("epsilon", "zeta"));
                 String message = "Error occurred while processing";
         logger.logIf(message, msg -> msg.contains("Error"));
         // Expected Output: Error occurred while processing
@@ -152,7 +286,7 @@ public class LoggerTest {
         // Expected Output: (No output since the condition is not met)
         logger.logIf("Error occurred", msg -> msg.contains("Error"));
 
-        Logger levelBasedLogger = Logger.getLevelBasedLogger(Logger.INFO);
+        LevelBasedLogger levelBasedLogger = Logger.getLevelBasedLogger(Logger.INFO);
 
         System.out.println("Log Level Test:");
         levelBasedLogger.error("This is an error message");
@@ -160,6 +294,22 @@ public class LoggerTest {
         levelBasedLogger.info("This is an info message");
         levelBasedLogger.debug("This is a debug message");  // Should not print
         levelBasedLogger.trace("This is a trace message");  // Should not print
+        levelBasedLogger.info("Processed {} records", 42);
+        levelBasedLogger.warn("Cache hit ratio is {}", 0.75);
+        levelBasedLogger.error("Failed to reach {}", "db-primary");
+        levelBasedLogger.debug(() -> "Expensive debug dump: " + System.getProperties());  // Supplier is never called
+
+        // Runtime level changes
+        levelBasedLogger.setLevel(Logger.DEBUG);
+        levelBasedLogger.debug("This debug message prints after raising the level");
+
+        // Hierarchical named loggers
+        LoggerRegistry.setLevel("com.example", Logger.WARNING);
+        Logger serviceLogger = Logger.getLogger("com.example.service");
+        serviceLogger.info("Should not print, com.example is at WARNING");
+        serviceLogger.warn("Inherited WARNING level from com.example");
+        LoggerRegistry.setLevel("com.example.service", Logger.TRACE);
+        serviceLogger.trace("com.example.service now has its own TRACE level");
 
         System.out.println("\n----- Timestamp Test -----");
         logger.logWithTimestamp("Service started successfully");
@@ -173,14 +323,136 @@ public class LoggerTest {
             }
         });
 
+        System.out.println("\n----- Timing Spans Test -----");
+        Timings timings = new Timings();
+        for (int i = 0; i < 1000; i++) {
+            try (Timings.Span request = timings.start("request")) {
+                timings.time("parse", () -> Integer.parseInt("12345"));
+                try (Timings.Span render = timings.start("render")) {
+                    String.valueOf(Math.sqrt(i));
+                }
+            }
+        }
+        timings.summary().forEach(System.out::println);
+        // Expected Output: request, request/parse and request/render, each with count=1000
+
         System.out.println("\n----- Contextual Logging Test -----");
         Map<String, String> context = Map.of("userId", "12345", "sessionId", "abc123");
         logger.logWithContext("User logged in", context);
 
+        // Thread context, inherited by threads started from here and carried over by LogContext.wrap
+        LogContext.put("requestId", "req-42");
+        try (LogContext.Scope ignored = LogContext.with("userId", "12345")) {
+            logger.logWithContext("Loading profile");
+            Thread worker = new Thread(LogContext.wrap(() -> logger.logWithContext("Profile loaded in worker")));
+            worker.start();
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.logWithContext("Request finished");
+        LogContext.clear();
+
+        System.out.println("\n----- Binary Event Logging Test -----");
+        String binaryLog = "log.bin";
+        try (BinaryFileLogger binaryLogger = Logger.getBinaryFileLogger(binaryLog)) {
+            binaryLogger.logWithContext("User logged in", context);
+            binaryLogger.logWithCategory("Unauthorized access attempt detected", "SECURITY");
+            binaryLogger.warn("Disk usage at {}", 0.93);
+            Map<String, String> requestContext = new HashMap<>(context);
+            binaryLogger.logWithContext("Request handled", requestContext);
+            requestContext.put("userId", "changed");  // The event kept its own copy, the record still has 12345
+        }
+        try {
+            BinaryEventDecoder.decodeFile(binaryLog, System.out::println);
+            Files.delete(Paths.get(binaryLog));
+        } catch (IOException e) {
+            System.err.println("Failed to read binary log: " + e.getMessage());
+        }
+
+        System.out.println("\n----- JSON Lines Logging Test -----");
+        try (JsonLinesLogger jsonLogger = Logger.getJsonLinesLogger(System.out, JsonLinesLogger.FlushPolicy.EVERY_EVENT, 1)) {
+            jsonLogger.logWithContext("User logged in", context);
+            jsonLogger.logWithCategory("Unauthorized access attempt detected", "SECURITY");
+            jsonLogger.info("Processed {} records", 42);
+            jsonLogger.logAsJson(logData);
+            // No properties, so Jackson rejects it; it is written as its toString() and the next lines stay intact
+            jsonLogger.logAsJson(new Object());
+            jsonLogger.log("After an unserializable payload");
+        }
+
+        System.out.println("\n----- Batched Console Logging Test -----");
+        BatchedConsoleLogger batchedLogger = Logger.getBatchedConsoleLogger();
+        batchedLogger.info("Batched info message");
+        batchedLogger.logIf("Batched error message", msg -> msg.contains("error"));
+        batchedLogger.flush();
+        batchedLogger.close();
+        batchedLogger.info("Logged after close, written straight away");
+        Logger.getBatchedConsoleLogger().info("Shared logger after close is a fresh one");
+        Logger.getBatchedConsoleLogger().flush();
+
         System.out.println("\n----- Pattern Matching Test -----");
         logger.logIfMatchesPattern("Error 404", "Error [0-9]+");  // Should match and log
         logger.logIfMatchesPattern("All good", "Error [0-9]+");   // Should not log
 
+        System.out.println("\n----- Routing Test -----");
+        Logger alerts = line -> System.out.println("[alerts] " + line);
+        Logger slowRequests = line -> System.out.println("[slow] " + line);
+        LogRouter router = LogRouter.builder()
+                .literal("ERROR", alerts)
+                .literal("Connection refused", alerts)
+                .regex("latency=\\d{4,}ms", slowRequests)
+                .otherwise(logger)
+                .build();
+        router.log("ERROR: Connection refused by db-primary");  // Both literals match, alerts gets it once
+        router.log("GET /orders latency=2048ms");               // Regex route
+        router.log("GET /health latency=3ms");                  // No route matches, default sink
+        // Structured calls reach the sinks as they were made, so a JSON sink keeps level, arguments and context
+        try (JsonLinesLogger checkoutLog = Logger.getJsonLinesLogger(System.out, JsonLinesLogger.FlushPolicy.EVERY_EVENT, 1)) {
+            LogRouter structuredRouter = LogRouter.builder()
+                    .literal("checkout", checkoutLog)
+                    .otherwise(logger)
+                    .build();
+            structuredRouter.error("checkout failed for order {}", 1234);
+            structuredRouter.logWithContext("checkout started", Map.of("userId", "12345"));
+            structuredRouter.info("Cart viewed");
+        }
+
+        System.out.println("\n----- Rate Limiting and Deduplication Test -----");
+        try (FilteringLogger filteringLogger = new FilteringLogger(logger, 1000, 256, 5, 3)) {
+            for (int i = 0; i < 100; i++) {
+                filteringLogger.error("Connection refused by {}", "db-primary");  // Logged once, then summarized
+            }
+            for (int i = 0; i < 10; i++) {
+                filteringLogger.warn("Retry {} failed", i);  // Distinct messages, but limited to a burst of 3
+            }
+            for (int userId = 1; userId <= 3; userId++) {
+                // Same template, different context: not duplicates, all three are logged
+                filteringLogger.logWithContext("User logged in", Map.of("userId", String.valueOf(userId)));
+            }
+            System.out.println("Suppressed so far: " + filteringLogger.getSuppressedCount());
+        }
+
+        System.out.println("\n----- Logger Metrics Test -----");
+        LoggerMetrics metrics = LoggerMetrics.global();
+        metrics.registerMBean();  // Visible in JConsole as org.example:type=LoggerMetrics
+        Logger instrumented = Logger.getInstrumentedLogger("console", Logger.getLevelBasedLogger(Logger.INFO));
+        instrumented.info("Processed {} records", 42);
+        instrumented.error("Connection refused");
+        instrumented.debug("Not logged, not counted");
+        for (LoggerMetrics.SinkSnapshot sink : metrics.snapshot().getSinks()) {
+            System.out.println(sink.getName() + ": " + sink.getMessageCount() + " messages, "
+                    + sink.getCount(Logger.ERROR) + " error");
+        }
+        // Expected Output: console: 2 messages, 1 error
+        // Closing the wrapper closes the JSON sink; logAsJson still writes the data's own fields
+        try (InstrumentedLogger instrumentedJson = Logger.getInstrumentedLogger("json",
+                Logger.getJsonLinesLogger(System.out, JsonLinesLogger.FlushPolicy.EVERY_EVENT, 1))) {
+            instrumentedJson.logAsJson(logData);
+        }
+
         System.out.println("\n----- Progress Bar Test -----");
         for (int i = 0; i <= 10; i++) {
             logger.logWithProgressBar("Downloading...", i, 10);
@@ -196,5 +468,12 @@ public class LoggerTest {
         logger.logWithTimeZone("User logged in", ZoneId.of("Europe/London"));
         logger.logWithTimeZone("Backup completed", ZoneId.of("Asia/Tokyo"));
 
+        System.out.println("\n----- Timestamp Renderer Test -----");
+        Clock fixedClock = Clock.fixed(Instant.parse("2024-10-06T14:32:00.123456Z"), ZoneId.of("UTC"));
+        System.out.println(new TimestampRenderer(fixedClock, TimestampRenderer.Precision.SECONDS, false).render());
+        System.out.println(new TimestampRenderer(fixedClock, TimestampRenderer.Precision.MILLIS, false).render());
+        System.out.println(new TimestampRenderer(fixedClock, TimestampRenderer.Precision.MICROS, true).render());
+        // Expected Output: 2024-10-06 14:32:00, 2024-10-06 14:32:00.123, 2024-10-06 14:32:00.123456 UTC
+
     }
 }
\ No newline at end of file